@@ -0,0 +1,95 @@
+package manager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * Times the patient list view for patients with long histories, built with the renderer and with the string
+ * concatenation it replaced. Run it with {@code gradlew listViewBenchmark}.
+ */
+public class ListViewBenchmark {
+    private static final int PATIENTS = 20;
+    private static final int APPOINTMENTS_PER_PATIENT = 2000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(patientWith(APPOINTMENTS_PER_PATIENT));
+        }
+
+        long concatenationNanos = timeRounds(() -> {
+            for (Patient patient : patients) {
+                concatenatedListView(patient);
+            }
+        });
+        StringBuilder buffer = new StringBuilder();
+        long rendererNanos = timeRounds(() -> {
+            buffer.setLength(0);
+            for (Patient patient : patients) {
+                Renderer.appendPatientListView(buffer, patient);
+            }
+        });
+
+        System.out.printf("List view of %d patients x %d appointments: concatenation %.1f ms, renderer %.1f ms%n",
+                PATIENTS, APPOINTMENTS_PER_PATIENT, concatenationNanos / 1e6, rendererNanos / 1e6);
+    }
+
+    // Runs the round once to warm up, then returns the fastest of the timed rounds
+    private static long timeRounds(Runnable round) {
+        round.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static Patient patientWith(int appointmentCount) {
+        List<String> history = new ArrayList<>();
+        for (int i = 0; i < appointmentCount; i++) {
+            history.add("Condition " + i);
+        }
+        Patient patient = new Patient("S1234567D", "Billy", "1990-10-01", "M", "124 High St", "81234567", history);
+        for (int i = 0; i < appointmentCount; i++) {
+            patient.addAppointment(new Appointment("A" + i, "S1234567D",
+                    LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i), "Checkup " + i));
+        }
+        return patient;
+    }
+
+    // The list view as Patient built it before the renderer, with += in loops
+    private static String concatenatedListView(Patient patient) {
+        String result = String.format(
+                "Patient NRIC: %s\n   "
+                        + "Name: %s\n   "
+                        + "Date of Birth: %s\n   "
+                        + "Gender: %s\n   "
+                        + "Address: %s\n   "
+                        + "Contact: %s",
+                patient.getId(), patient.getName(), patient.getDob(), patient.getGender(), patient.getAddress(),
+                patient.getContactInfo());
+        if (patient.getMedicalHistory().isEmpty()) {
+            result += "\n   Medical History: None";
+        } else {
+            result += "\n   Medical History:";
+            for (String h : patient.getMedicalHistory()) {
+                result += "\n   - " + h;
+            }
+        }
+        if (patient.getAppointments().isEmpty()) {
+            result += "\n   Appointments: None";
+        } else {
+            result += "\n   Appointments:";
+            for (Appointment appt : patient.getAppointments()) {
+                result += String.format("\n   - [%s][%s]: %s (%s)", appt.getId(), appt.getStatusIcon(),
+                        appt.getDateTime().format(Appointment.OUTPUT_FORMAT), appt.getDescription());
+            }
+        }
+        return result;
+    }
+}
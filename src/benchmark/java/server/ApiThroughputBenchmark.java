@@ -0,0 +1,79 @@
+package server;
+
+import manager.Appointment;
+import manager.ManagementSystem;
+import manager.Patient;
+import storage.Storage;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//@@author Basudeb2005
+/**
+ * Times the HTTP API with several clients that each reuse one keep-alive connection, half of the requests
+ * filtering the patient list and half looking up one patient. Run it with {@code gradlew apiBenchmark}.
+ */
+public class ApiThroughputBenchmark {
+    private static final int PATIENTS = 200;
+    private static final int CLIENTS = 8;
+    private static final int REQUESTS_PER_CLIENT = 250;
+
+    public static void main(String[] args) throws Exception {
+        new Storage(Files.createTempDirectory("clinicease-benchmark").toString());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < PATIENTS; i++) {
+            String nric = String.format("S%07dA", i);
+            manager.addPatient(new Patient(nric, "Patient " + i, "1980-01-01",
+                    i % 2 == 0 ? "M" : "F", "1 Main St", "81234567", new ArrayList<>()));
+            manager.addAppointment(new Appointment(nric, LocalDateTime.of(2025, 4, 1 + i % 28, 9, 0), "Checkup"));
+        }
+
+        try (ApiServer api = new ApiServer(manager, 0)) {
+            api.start();
+            run(api.getPort());
+            run(api.getPort());
+        }
+    }
+
+    // The first run warms up the JIT and the connections; only later runs are worth reading
+    private static void run(int port) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Integer>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            results.add(pool.submit(() -> servedBy(HttpClient.newHttpClient(), port)));
+        }
+        int served = 0;
+        for (Future<Integer> result : results) {
+            served += result.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("HTTP API: %d of %d requests in %.2f s (%.0f requests/s)%n",
+                served, CLIENTS * REQUESTS_PER_CLIENT, seconds, served / seconds);
+    }
+
+    private static int servedBy(HttpClient client, int port) throws Exception {
+        int ok = 0;
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+            String path = i % 2 == 0
+                    ? "/patients?g=F&limit=20"
+                    : "/patients/" + String.format("S%07dA", i % PATIENTS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+}
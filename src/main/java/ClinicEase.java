@@ -7,14 +7,33 @@ import manager.ManagementSystem;
 import manager.Patient;
 import manager.Appointment;
 import manager.Prescription;
+import manager.RecurringAppointment;
+import manager.ReminderScheduler;
 import miscellaneous.Parser;
 import miscellaneous.Ui;
+import server.ApiServer;
+import server.CommandServer;
 import storage.Storage;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ClinicEase {
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_REMIND_HOURS = 24 * 366;
+    private static final int MAX_PORT = 65535;
+    private static final Set<String> OPTIONS = Set.of("--server", "--http", "--batch", "--flush-every", "--remind");
+    private static final String USAGE = "Use: java -jar ClinicEase.jar [--server PORT] [--http PORT] "
+            + "[--batch FILE [--flush-every N]] [--remind HOURS]";
 
     private ManagementSystem manager;
     private Ui ui;
@@ -29,11 +48,14 @@ public class ClinicEase {
             List<Patient> patients = Storage.loadPatients();
             List<Appointment> appointments = Storage.loadAppointments();
             List<Prescription> prescriptions = Storage.loadPrescriptions();
-            this.manager = new ManagementSystem(patients, appointments, prescriptions);
+            List<RecurringAppointment> recurring = Storage.loadRecurringAppointments();
+            this.manager = new ManagementSystem(patients, appointments, prescriptions, recurring);
+            ui.showUnreadablePatients(Storage.getUnreadablePatientLines());
         } catch (UnloadedStorageException e) {
             ui.showError("Could not load data: " + e.getMessage());
             this.manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
         }
+        loadCommandPlugins();
     }
 
     public void run() {
@@ -47,13 +69,236 @@ public class ClinicEase {
                 command.execute(manager, ui);
                 running = !command.isExit();
             } catch (InvalidInputFormatException | UnknownCommandException | DuplicatePatientIDException |
-                     UnloadedStorageException | IllegalArgumentException e) {
+                     UnloadedStorageException | IllegalArgumentException | IllegalStateException e) {
                 ui.showError(e.getMessage());
             }
+            ui.flush();
         }
+        rollBackOpenTransaction();
+        ui.flush();
+        // A clean exit gives back the unused part of each reserved ID block
+        Appointment.getIdAllocator().release();
+        Prescription.getIdAllocator().release();
+    }
+
+    //@@author Basudeb2005
+    /**
+     * Serves the command line to front desk terminals on the given local port until the process is stopped.
+     */
+    public void serve(int port) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            rollBackOpenTransaction();
+            Appointment.getIdAllocator().release();
+            Prescription.getIdAllocator().release();
+        }));
+        try (CommandServer server = new CommandServer(manager, port)) {
+            ui.showServerStarted(server.getPort());
+            ui.flush();
+            server.serve();
+        } catch (IOException e) {
+            ui.showError("Could not run the server: " + e.getMessage());
+            ui.flush();
+        }
+    }
+
+    // Reminders go to the outbox while this process runs, the given number of hours before each appointment
+    private ReminderScheduler startReminders(int hours) {
+        ReminderScheduler reminders = new ReminderScheduler(Duration.ofHours(hours));
+        manager.setReminderScheduler(reminders);
+        reminders.start();
+        ui.showRemindersStarted(hours, reminders.getPendingCount());
+        ui.flush();
+        return reminders;
+    }
+
+    private ApiServer startApi(int port) {
+        try {
+            ApiServer api = new ApiServer(manager, port);
+            api.start();
+            ui.showApiStarted(api.getPort());
+            ui.flush();
+            return api;
+        } catch (IOException e) {
+            ui.showError("Could not start the HTTP API: " + e.getMessage());
+            ui.flush();
+            return null;
+        }
+    }
+
+    /**
+     * Runs the commands read from {@code reader}, one per line, without prompts. Saves are held back and
+     * written every {@code flushEvery} commands, or only once at the end if it is 0, and a summary with the
+     * number of commands per second is shown at the end. Stops early at {@code bye}.
+     */
+    public void runBatch(BufferedReader reader, int flushEvery) throws IOException {
+        assert flushEvery >= 0 : "Flush interval cannot be negative";
+
+        Storage.setDeferringSaves(true);
+        int commands = 0;
+        int failed = 0;
+        int lineNumber = 0;
+        long start = System.nanoTime();
+        try {
+            String input;
+            boolean running = true;
+            while (running && (input = reader.readLine()) != null) {
+                lineNumber++;
+                if (input.isBlank()) {
+                    continue;
+                }
+                commands++;
+                try {
+                    Command command = Parser.parse(input.trim());
+                    command.execute(manager, ui);
+                    running = !command.isExit();
+                } catch (InvalidInputFormatException | UnknownCommandException | DuplicatePatientIDException |
+                         UnloadedStorageException | IllegalArgumentException | IllegalStateException e) {
+                    failed++;
+                    ui.showError("Line " + lineNumber + ": " + e.getMessage());
+                }
+                if (flushEvery > 0 && commands % flushEvery == 0) {
+                    flushPendingSaves();
+                }
+            }
+        } finally {
+            rollBackOpenTransaction();
+            flushPendingSaves();
+            Storage.setDeferringSaves(false);
+        }
+        ui.showBatchSummary(commands, failed, (System.nanoTime() - start) / 1e9);
+        ui.flush();
+        Appointment.getIdAllocator().release();
+        Prescription.getIdAllocator().release();
+    }
+
+    private void flushPendingSaves() {
+        try {
+            manager.flushPendingSaves();
+        } catch (UnloadedStorageException e) {
+            ui.showError(e.getMessage());
+        }
+    }
+
+    // Changes of a transaction that was never committed are not kept
+    private void rollBackOpenTransaction() {
+        if (!manager.isInTransaction()) {
+            return;
+        }
+        try {
+            ui.showTransactionRolledBack(manager.rollbackTransaction());
+        } catch (UnloadedStorageException e) {
+            ui.showError(e.getMessage());
+        }
+    }
+
+    private static BufferedReader openBatch(String path) throws IOException {
+        InputStream in = path.equals("-") ? System.in : Files.newInputStream(Path.of(path));
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BATCH_BUFFER_SIZE);
+    }
+
+    // A broken or clashing plugin is reported but does not stop the other commands from working
+    private void loadCommandPlugins() {
+        Parser.getCommandRegistry().loadPlugins(ClinicEase.class.getClassLoader(),
+                problem -> ui.showError("Could not load a command plugin: " + problem));
+    }
+
+    // Returns the value if it is a whole number from 1 to max, otherwise 0
+    private static int parseCountOption(String value, int max) {
+        try {
+            int count = Integer.parseInt(value.trim());
+            return count >= 1 && count <= max ? count : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void showUsageError(String message) {
+        ui.showError(message);
+        ui.flush();
     }
 
     public static void main(String[] args) {
-        new ClinicEase("data").run();
+        ClinicEase clinicEase = new ClinicEase("data");
+        Integer serverPort = null;
+        Integer httpPort = null;
+        String batchPath = null;
+        int flushEvery = 0;
+        Integer remindHours = null;
+        for (int i = 0; i < args.length; i += 2) {
+            String option = args[i];
+            if (!OPTIONS.contains(option)) {
+                clinicEase.showUsageError("Unknown option " + option + "! " + USAGE);
+                return;
+            }
+            if (i + 1 == args.length) {
+                clinicEase.showUsageError("Missing value for " + option + "! " + USAGE);
+                return;
+            }
+            String value = args[i + 1];
+            if (option.equals("--server")) {
+                serverPort = parseCountOption(value, MAX_PORT);
+                if (serverPort == 0) {
+                    clinicEase.showUsageError("Invalid --server! Use --server PORT with PORT from 1 to "
+                            + MAX_PORT + ".");
+                    return;
+                }
+            } else if (option.equals("--http")) {
+                httpPort = parseCountOption(value, MAX_PORT);
+                if (httpPort == 0) {
+                    clinicEase.showUsageError("Invalid --http! Use --http PORT with PORT from 1 to " + MAX_PORT + ".");
+                    return;
+                }
+            } else if (option.equals("--batch")) {
+                batchPath = value;
+            } else if (option.equals("--flush-every")) {
+                flushEvery = parseCountOption(value, Integer.MAX_VALUE);
+                if (flushEvery == 0) {
+                    clinicEase.showUsageError("Invalid --flush-every! Use --flush-every N with N a whole number "
+                            + "of commands, at least 1.");
+                    return;
+                }
+            } else {
+                remindHours = parseCountOption(value, MAX_REMIND_HOURS);
+                if (remindHours == 0) {
+                    clinicEase.showUsageError("Invalid --remind! Use --remind HOURS with HOURS a whole number "
+                            + "from 1 to " + MAX_REMIND_HOURS + ".");
+                    return;
+                }
+            }
+        }
+
+        ReminderScheduler reminders = null;
+        if (remindHours != null) {
+            reminders = clinicEase.startReminders(remindHours);
+        }
+
+        if (batchPath != null) {
+            try (BufferedReader reader = openBatch(batchPath)) {
+                clinicEase.runBatch(reader, flushEvery);
+            } catch (IOException e) {
+                clinicEase.ui.showError("Could not read the batch file: " + e.getMessage());
+                clinicEase.ui.flush();
+            }
+            if (reminders != null) {
+                reminders.close();
+            }
+            return;
+        }
+
+        ApiServer api = null;
+        if (httpPort != null) {
+            api = clinicEase.startApi(httpPort);
+        }
+        if (serverPort != null) {
+            clinicEase.serve(serverPort);
+        } else {
+            clinicEase.run();
+        }
+        if (api != null) {
+            api.close();
+        }
+        if (reminders != null) {
+            reminders.close();
+        }
     }
 }
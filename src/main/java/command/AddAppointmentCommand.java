@@ -16,7 +16,7 @@ public class AddAppointmentCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws IllegalArgumentException, UnloadedStorageException {
         manager.addAppointment(appointment);
-        ui.showAppointmentAdded(manager.getAppointments());
+        ui.showAppointmentAdded(appointment, manager.getAppointmentCount());
     }
 
 }
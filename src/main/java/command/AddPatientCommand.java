@@ -17,6 +17,6 @@ public class AddPatientCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws DuplicatePatientIDException, UnloadedStorageException {
         manager.addPatient(patient);
-        ui.showPatientAdded(manager.getPatients());
+        ui.showPatientAdded(patient);
     }
 }
@@ -16,15 +16,8 @@ public class AddPrescriptionCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         try {
-            manager.addPrescription(prescription);
-            ui.showLine();
-            System.out.println("Successfully added prescription:");
-            System.out.println(prescription.toString());
-            System.out.println("");
-            System.out.println("Prescription has been generated.");
-            System.out.println("View the prescription for the patient with ID: " + prescription.getPatientId());
-            System.out.println("and prescription ID: " + prescription.getPrescriptionId());
-            ui.showLine();
+            Prescription added = manager.addPrescription(prescription);
+            ui.showPrescriptionAdded(added);
         } catch (IllegalArgumentException e) {
             ui.showError("Failed to add prescription: " + e.getMessage());
         }
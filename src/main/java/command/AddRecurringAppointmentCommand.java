@@ -0,0 +1,21 @@
+package command;
+
+import exception.UnloadedStorageException;
+import manager.ManagementSystem;
+import manager.RecurringAppointment;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class AddRecurringAppointmentCommand extends Command {
+    private final RecurringAppointment series;
+
+    public AddRecurringAppointmentCommand(RecurringAppointment series) {
+        this.series = series;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
+        manager.addRecurringAppointment(series);
+        ui.showRecurringAppointmentAdded(series);
+    }
+}
@@ -0,0 +1,14 @@
+package command;
+
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class BeginTransactionCommand extends Command {
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        manager.beginTransaction();
+        ui.showTransactionBegun();
+    }
+}
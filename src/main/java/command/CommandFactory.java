@@ -0,0 +1,12 @@
+package command;
+
+import exception.InvalidInputFormatException;
+
+//@@author Basudeb2005
+/**
+ * Creates the command for one line of input whose first word is the command word it was registered with.
+ */
+@FunctionalInterface
+public interface CommandFactory {
+    Command create(String input) throws InvalidInputFormatException;
+}
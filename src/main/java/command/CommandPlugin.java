@@ -0,0 +1,13 @@
+package command;
+
+import miscellaneous.CommandRegistry;
+
+//@@author Basudeb2005
+/**
+ * Adds in-house commands without changing the parser. Implementations are found with
+ * {@link java.util.ServiceLoader}, so a plugin jar on the class path only needs a
+ * {@code META-INF/services/command.CommandPlugin} file naming its implementation.
+ */
+public interface CommandPlugin {
+    void registerCommands(CommandRegistry registry);
+}
@@ -15,6 +15,6 @@ public class DeleteAppointmentCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         Appointment removedAppointment = manager.deleteAppointment(apptId);
-        ui.showAppointmentDeleted(manager.getAppointments(), removedAppointment, apptId);
+        ui.showAppointmentDeleted(manager.getAppointmentCount(), removedAppointment, apptId);
     }
 }
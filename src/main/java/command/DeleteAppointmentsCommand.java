@@ -0,0 +1,24 @@
+package command;
+
+import exception.UnloadedStorageException;
+import manager.Appointment;
+import manager.AppointmentFilter;
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+import java.util.List;
+
+//@@author Basudeb2005
+public class DeleteAppointmentsCommand extends Command {
+    private final AppointmentFilter filter;
+
+    public DeleteAppointmentsCommand(AppointmentFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
+        List<Appointment> deleted = manager.deleteAppointments(filter);
+        ui.showAppointmentsDeleted(deleted, manager.getAppointmentCount());
+    }
+}
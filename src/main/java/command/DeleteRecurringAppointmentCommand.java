@@ -0,0 +1,21 @@
+package command;
+
+import exception.UnloadedStorageException;
+import manager.ManagementSystem;
+import manager.RecurringAppointment;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class DeleteRecurringAppointmentCommand extends Command {
+    private final String seriesId;
+
+    public DeleteRecurringAppointmentCommand(String seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
+        RecurringAppointment removed = manager.deleteRecurringAppointment(seriesId);
+        ui.showRecurringAppointmentDeleted(removed, seriesId);
+    }
+}
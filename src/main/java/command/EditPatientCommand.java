@@ -2,8 +2,11 @@ package command;
 
 import exception.UnloadedStorageException;
 import manager.ManagementSystem;
+import manager.Patient;
 import miscellaneous.Ui;
 
+import java.time.LocalDate;
+
 public class EditPatientCommand extends Command {
 
     // details: [0]=nric, [1]=name, [2]=dob, [3]=gender, [4]=address, [5]=phone
@@ -17,14 +20,13 @@ public class EditPatientCommand extends Command {
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         String nric   = details[0];
         String name   = details[1];
-        String dob    = details[2];
+        // The parser has already validated the date of birth
+        LocalDate dob = details[2] == null ? null : LocalDate.parse(details[2]);
         String gender = details[3];
         String addr   = details[4];
         String phone  = details[5];
 
-        manager.editPatient(nric, name, dob, gender, addr, phone);
-        Ui.showLine();
-        System.out.println("Edit-patient command executed.");
-        Ui.showLine();
+        Patient editedPatient = manager.editPatient(nric, name, dob, gender, addr, phone);
+        ui.showPatientEdited(editedPatient, nric);
     }
 }
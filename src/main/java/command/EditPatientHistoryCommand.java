@@ -2,6 +2,7 @@ package command;
 
 import exception.UnloadedStorageException;
 import manager.ManagementSystem;
+import manager.Patient;
 import miscellaneous.Ui;
 
 public class EditPatientHistoryCommand extends Command {
@@ -18,10 +19,9 @@ public class EditPatientHistoryCommand extends Command {
         String oldHistory = details[1];
         String newHistory = details[2];
 
-        manager.editPatientHistory(nric, oldHistory, newHistory);
+        Patient patient = manager.viewMedicalHistoryByNric(nric);
+        boolean isReplaced = patient != null && manager.editPatientHistory(nric, oldHistory, newHistory);
 
-        Ui.showLine();
-        System.out.println("Edit-history command executed.");
-        Ui.showLine();
+        ui.showPatientHistoryEdited(patient, nric, oldHistory, newHistory, isReplaced);
     }
 }
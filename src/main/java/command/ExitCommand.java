@@ -7,7 +7,7 @@ public class ExitCommand extends Command {
 
     @Override
     public void execute(ManagementSystem manager, Ui ui) {
-        Ui.showBye();
+        ui.showBye();
     }
 
     @Override
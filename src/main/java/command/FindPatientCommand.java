@@ -0,0 +1,22 @@
+package command;
+
+import manager.ManagementSystem;
+import manager.Patient;
+import miscellaneous.Ui;
+
+import java.util.List;
+
+//@@author Basudeb2005
+public class FindPatientCommand extends Command {
+    protected String name;
+
+    public FindPatientCommand(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        List<Patient> matchedPatients = manager.findPatientsByFuzzyName(name);
+        ui.showPatientsFound(matchedPatients, name);
+    }
+}
@@ -1,11 +1,36 @@
 package command;
 
+import manager.AppointmentFilter;
 import manager.ManagementSystem;
 import miscellaneous.Ui;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ListAppointmentCommand extends Command {
+    protected AppointmentFilter filter;
+
+    public ListAppointmentCommand() {
+        this(new AppointmentFilter());
+    }
+
+    public ListAppointmentCommand(AppointmentFilter filter) {
+        this.filter = filter;
+    }
+
+    // Appointments are printed as the manager finds them, so only the requested page is ever rendered
     @Override
     public void execute(ManagementSystem manager, Ui ui) {
-        ui.showAppointmentList(manager.getAppointments());
+        AtomicInteger number = new AtomicInteger(filter.getOffset());
+        int shown = manager.forEachAppointment(filter, appointment -> {
+            if (number.get() == filter.getOffset()) {
+                ui.showAppointmentListHeader();
+            }
+            ui.showAppointmentListItem(number.incrementAndGet(), appointment);
+        });
+        if (shown == 0) {
+            ui.showAppointmentListEmpty();
+        } else {
+            ui.showLine();
+        }
     }
 }
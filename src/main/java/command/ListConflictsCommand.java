@@ -0,0 +1,13 @@
+package command;
+
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class ListConflictsCommand extends Command {
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        ui.showConflicts(manager.findConflicts());
+    }
+}
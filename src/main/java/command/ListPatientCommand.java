@@ -1,11 +1,35 @@
 package command;
 
 import manager.ManagementSystem;
+import manager.PatientFilter;
 import miscellaneous.Ui;
 
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ListPatientCommand extends Command {
+    protected PatientFilter filter;
+
+    public ListPatientCommand() {
+        this(new PatientFilter());
+    }
+
+    public ListPatientCommand(PatientFilter filter) {
+        this.filter = filter;
+    }
+
+    // Patients are printed as the manager finds them, so only the requested page is ever rendered
     @Override
     public void execute(ManagementSystem manager, Ui ui) {
-        ui.showPatientList(manager.getPatients());
+        AtomicInteger number = new AtomicInteger(filter.getOffset());
+        int shown = manager.forEachPatient(filter, LocalDate.now(), patient -> {
+            if (number.get() == filter.getOffset()) {
+                ui.showPatientListHeader();
+            }
+            ui.showPatientListItem(number.incrementAndGet(), patient);
+        });
+        if (shown == 0) {
+            ui.showPatientListEmpty(filter.toString());
+        }
     }
 }
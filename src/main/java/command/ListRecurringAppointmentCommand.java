@@ -0,0 +1,20 @@
+package command;
+
+import manager.AppointmentFilter;
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class ListRecurringAppointmentCommand extends Command {
+    private final AppointmentFilter filter;
+
+    public ListRecurringAppointmentCommand(AppointmentFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        ui.showRecurringOccurrences(filter.getFromDateTime().toLocalDate(), filter.getToDateTime().toLocalDate(),
+                manager.getRecurringOccurrences(filter));
+    }
+}
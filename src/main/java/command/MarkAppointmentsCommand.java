@@ -0,0 +1,26 @@
+package command;
+
+import exception.UnloadedStorageException;
+import manager.Appointment;
+import manager.AppointmentFilter;
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+import java.util.List;
+
+//@@author Basudeb2005
+public class MarkAppointmentsCommand extends Command {
+    private final AppointmentFilter filter;
+    private final boolean isDone;
+
+    public MarkAppointmentsCommand(AppointmentFilter filter, boolean isDone) {
+        this.filter = filter;
+        this.isDone = isDone;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
+        List<Appointment> changed = manager.markAppointments(filter, isDone);
+        ui.showAppointmentsMarked(changed, isDone);
+    }
+}
@@ -15,6 +15,6 @@ public class MarkApppointmentCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         Appointment appointment = manager.markAppointment(apptId);
-        ui.showAppointmentMarked(manager.getAppointments(), appointment, apptId);
+        ui.showAppointmentMarked(appointment, apptId);
     }
 }
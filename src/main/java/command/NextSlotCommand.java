@@ -0,0 +1,23 @@
+package command;
+
+import manager.ManagementSystem;
+import manager.SlotRequest;
+import miscellaneous.Ui;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//@@author Basudeb2005
+public class NextSlotCommand extends Command {
+    private final SlotRequest request;
+
+    public NextSlotCommand(SlotRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        List<LocalDateTime> slots = manager.findFreeSlots(request);
+        ui.showFreeSlots(request, slots);
+    }
+}
@@ -0,0 +1,15 @@
+package command;
+
+import exception.UnloadedStorageException;
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+//@@author Basudeb2005
+public class RollbackTransactionCommand extends Command {
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
+        int changes = manager.rollbackTransaction();
+        ui.showTransactionRolledBack(changes);
+    }
+}
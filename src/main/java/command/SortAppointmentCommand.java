@@ -19,10 +19,10 @@ public class SortAppointmentCommand extends Command {
     public void execute (ManagementSystem manager, Ui ui) throws DuplicatePatientIDException,
             UnloadedStorageException {
         if (type.equals("date")) {
-            List<Appointment> sortedApptByDateTime = manager.sortAppointmentsByDateTime(manager.getAppointments());
+            List<Appointment> sortedApptByDateTime = manager.sortAppointmentsByDateTime();
             ui.showAppointmentList(sortedApptByDateTime);
         } else {
-            List<Appointment> sortedApptById = manager.sortAppointmentsById(manager.getAppointments());
+            List<Appointment> sortedApptById = manager.sortAppointmentsById();
             ui.showAppointmentList(sortedApptById);
         }
     }
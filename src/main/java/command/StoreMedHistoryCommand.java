@@ -18,5 +18,6 @@ public class StoreMedHistoryCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         manager.storeMedicalHistory(name, nric, medHistory);
+        ui.showMedicalHistoryAdded(name, nric);
     }
 }
@@ -15,6 +15,6 @@ public class UnmarkAppointmentCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) throws UnloadedStorageException {
         Appointment appointment = manager.unmarkAppointment(apptId);
-        ui.showAppointmentUnmarked(manager.getAppointments(), appointment, apptId);
+        ui.showAppointmentUnmarked(appointment, apptId);
     }
 }
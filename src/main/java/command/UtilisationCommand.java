@@ -0,0 +1,22 @@
+package command;
+
+import manager.ManagementSystem;
+import manager.ScheduleQuery;
+import miscellaneous.Ui;
+
+import java.time.Duration;
+
+//@@author Basudeb2005
+public class UtilisationCommand extends Command {
+    private final ScheduleQuery query;
+
+    public UtilisationCommand(ScheduleQuery query) {
+        this.query = query;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        Duration booked = manager.getBookedTime(query.getKind(), query.getName(), query.getFrom(), query.getTo());
+        ui.showUtilisation(query, booked);
+    }
+}
@@ -0,0 +1,20 @@
+package command;
+
+import manager.ManagementSystem;
+import miscellaneous.Ui;
+
+import java.time.LocalDate;
+
+//@@author Basudeb2005
+public class ViewDayCommand extends Command {
+    private final LocalDate date;
+
+    public ViewDayCommand(LocalDate date) {
+        this.date = date;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        ui.showDay(date, manager.getAppointmentsOn(date));
+    }
+}
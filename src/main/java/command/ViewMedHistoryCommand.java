@@ -15,9 +15,12 @@ public class ViewMedHistoryCommand extends Command {
     @Override
     public void execute(ManagementSystem manager, Ui ui) {
         if (type.equals("ic")) {
-            manager.viewMedicalHistoryByNric(nameOrIc);
+            ui.showMedicalHistory(manager.viewMedicalHistoryByNric(nameOrIc), nameOrIc);
+        } else if (type.equals("sl")) {
+            ui.showMedicalHistories(manager.viewMedicalHistoryBySound(nameOrIc),
+                    "a name sounding like '" + nameOrIc + "'");
         } else {
-            manager.viewMedicalHistoryByName(nameOrIc);
+            ui.showMedicalHistories(manager.viewMedicalHistoryByName(nameOrIc), "name '" + nameOrIc + "'");
         }
     }
 }
@@ -4,12 +4,20 @@ import manager.ManagementSystem;
 import manager.Patient;
 import miscellaneous.Ui;
 
+import java.util.List;
+
 //@@author dylancmznus
 public class ViewPatientCommand extends Command {
+    protected String type;
     protected String nric;
 
     public ViewPatientCommand(String nric) {
-        this.nric = nric;
+        this(new String[]{"ic", nric});
+    }
+
+    public ViewPatientCommand(String[] details) {
+        this.type = details[0];
+        this.nric = details[1];
     }
 
     @Override
@@ -17,6 +25,12 @@ public class ViewPatientCommand extends Command {
         assert manager != null : "ManagementSystem instance can't be empty";
         assert ui != null : "Ui instance can't be empty";
 
+        if (type.equals("sl")) {
+            List<Patient> matchedPatients = manager.findPatientsBySound(nric);
+            ui.showPatientsSoundingLike(matchedPatients, nric);
+            return;
+        }
+
         Patient matchedPatient = manager.viewPatient(nric);
         assert matchedPatient != null : "No patient found for NRIC: " + nric;
 
@@ -27,11 +27,6 @@ public class ViewPrescriptionCommand extends Command {
 
         Patient patient = manager.viewPatient(prescription.getPatientId());
         
-        ui.showLine();
-        System.out.println("Prescription details:");
-        System.out.println(prescription.toString());
-        System.out.println("");
-        
         // Generate HTML file
         Storage.savePrescriptionHtml(prescription, patient);
         
@@ -42,9 +37,7 @@ public class ViewPrescriptionCommand extends Command {
                 + File.separator + "prescriptions" 
                 + File.separator + fileName;
         
-        System.out.println("Prescription HTML file generated at: " + filePath);
-        System.out.println("Open this file in a web browser to view and print the prescription.");
-        ui.showLine();
+        ui.showPrescriptionDetails(prescription, filePath);
     }
 
     @Override
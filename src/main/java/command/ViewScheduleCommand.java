@@ -0,0 +1,26 @@
+package command;
+
+import manager.Appointment;
+import manager.ManagementSystem;
+import manager.ScheduleQuery;
+import miscellaneous.Ui;
+
+import java.time.Duration;
+import java.util.List;
+
+//@@author Basudeb2005
+public class ViewScheduleCommand extends Command {
+    private final ScheduleQuery query;
+
+    public ViewScheduleCommand(ScheduleQuery query) {
+        this.query = query;
+    }
+
+    @Override
+    public void execute(ManagementSystem manager, Ui ui) {
+        List<Appointment> bookings = manager.getBookings(query.getKind(), query.getName(),
+                query.getFrom(), query.getTo());
+        Duration booked = manager.getBookedTime(query.getKind(), query.getName(), query.getFrom(), query.getTo());
+        ui.showSchedule(query, bookings, booked);
+    }
+}
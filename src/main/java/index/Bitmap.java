@@ -0,0 +1,192 @@
+package index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Compressed set of non-negative integers. Only the non-zero 64-bit words are stored, each tagged with
+ * its position, so sparse sets stay small while AND, OR and AND NOT work a whole word at a time.
+ */
+public class Bitmap {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+
+    private int[] positions;
+    private long[] words;
+    private int wordCount;
+
+    public Bitmap() {
+        this(new int[4], new long[4], 0);
+    }
+
+    private Bitmap(int[] positions, long[] words, int wordCount) {
+        this.positions = positions;
+        this.words = words;
+        this.wordCount = wordCount;
+    }
+
+    public void set(int bit) {
+        assert bit >= 0 : "Bit index cannot be negative";
+        int position = bit >>> WORD_SHIFT;
+        int slot = Arrays.binarySearch(positions, 0, wordCount, position);
+        if (slot < 0) {
+            slot = -slot - 1;
+            insertWord(slot, position);
+        }
+        words[slot] |= 1L << (bit & WORD_MASK);
+    }
+
+    public void clear(int bit) {
+        int slot = Arrays.binarySearch(positions, 0, wordCount, bit >>> WORD_SHIFT);
+        if (slot < 0) {
+            return;
+        }
+        words[slot] &= ~(1L << (bit & WORD_MASK));
+        if (words[slot] == 0) {
+            removeWord(slot);
+        }
+    }
+
+    public boolean contains(int bit) {
+        int slot = Arrays.binarySearch(positions, 0, wordCount, bit >>> WORD_SHIFT);
+        return slot >= 0 && (words[slot] & (1L << (bit & WORD_MASK))) != 0;
+    }
+
+    public boolean isEmpty() {
+        return wordCount == 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    public Bitmap and(Bitmap other) {
+        Bitmap result = new Bitmap(new int[Math.min(wordCount, other.wordCount) + 1],
+                new long[Math.min(wordCount, other.wordCount) + 1], 0);
+        int i = 0;
+        int j = 0;
+        while (i < wordCount && j < other.wordCount) {
+            if (positions[i] < other.positions[j]) {
+                i++;
+            } else if (positions[i] > other.positions[j]) {
+                j++;
+            } else {
+                result.appendWord(positions[i], words[i] & other.words[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public Bitmap or(Bitmap other) {
+        Bitmap result = new Bitmap(new int[wordCount + other.wordCount + 1],
+                new long[wordCount + other.wordCount + 1], 0);
+        int i = 0;
+        int j = 0;
+        while (i < wordCount || j < other.wordCount) {
+            if (j == other.wordCount || (i < wordCount && positions[i] < other.positions[j])) {
+                result.appendWord(positions[i], words[i]);
+                i++;
+            } else if (i == wordCount || positions[i] > other.positions[j]) {
+                result.appendWord(other.positions[j], other.words[j]);
+                j++;
+            } else {
+                result.appendWord(positions[i], words[i] | other.words[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public Bitmap andNot(Bitmap other) {
+        Bitmap result = new Bitmap(new int[wordCount + 1], new long[wordCount + 1], 0);
+        int j = 0;
+        for (int i = 0; i < wordCount; i++) {
+            while (j < other.wordCount && other.positions[j] < positions[i]) {
+                j++;
+            }
+            long remaining = words[i];
+            if (j < other.wordCount && other.positions[j] == positions[i]) {
+                remaining &= ~other.words[j];
+            }
+            result.appendWord(positions[i], remaining);
+        }
+        return result;
+    }
+
+    public Bitmap copy() {
+        return new Bitmap(Arrays.copyOf(positions, Math.max(wordCount, 1)),
+                Arrays.copyOf(words, Math.max(wordCount, 1)), wordCount);
+    }
+
+    /**
+     * Passes every set bit to the action, in increasing order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < wordCount; i++) {
+            long word = words[i];
+            int base = positions[i] << WORD_SHIFT;
+            while (word != 0) {
+                action.accept(base + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the set bits in increasing order. Words are only expanded as the stream is consumed,
+     * so a stream cut short by {@code limit} does not visit the rest of the bitmap.
+     */
+    public IntStream stream() {
+        return IntStream.range(0, wordCount).flatMap(slot -> {
+            long word = words[slot];
+            int base = positions[slot] << WORD_SHIFT;
+            int[] bits = new int[Long.bitCount(word)];
+            for (int i = 0; word != 0; i++) {
+                bits[i] = base + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            return IntStream.of(bits);
+        });
+    }
+
+    private void appendWord(int position, long word) {
+        if (word == 0) {
+            return;
+        }
+        ensureCapacity(wordCount + 1);
+        positions[wordCount] = position;
+        words[wordCount] = word;
+        wordCount++;
+    }
+
+    private void insertWord(int slot, int position) {
+        ensureCapacity(wordCount + 1);
+        System.arraycopy(positions, slot, positions, slot + 1, wordCount - slot);
+        System.arraycopy(words, slot, words, slot + 1, wordCount - slot);
+        positions[slot] = position;
+        words[slot] = 0;
+        wordCount++;
+    }
+
+    private void removeWord(int slot) {
+        System.arraycopy(positions, slot + 1, positions, slot, wordCount - slot - 1);
+        System.arraycopy(words, slot + 1, words, slot, wordCount - slot - 1);
+        wordCount--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int newLength = Math.max(capacity, positions.length * 2);
+            positions = Arrays.copyOf(positions, newLength);
+            words = Arrays.copyOf(words, newLength);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap index over low-cardinality attribute values such as "gender:f" or "done:false".
+ * Every item gets a row number and each value keeps a {@link Bitmap} of the rows that have it,
+ * so filters combine with word-level AND/OR/AND NOT before any item is looked at.
+ * The row of a removed item is not reused, which keeps results in insertion order. Once removed rows
+ * make up half of all rows, the remaining items are numbered again in the same order.
+ */
+public class BitmapIndex<T> {
+    private static final int MIN_ROWS_TO_COMPACT = 64;
+
+    private final List<T> rows = new ArrayList<>();
+    private final Map<T, Integer> rowNumbers = new HashMap<>();
+    private final Map<T, Collection<String>> indexedValues = new HashMap<>();
+    private final Map<String, Bitmap> bitmaps = new HashMap<>();
+    private Bitmap liveRows = new Bitmap();
+
+    public void put(T item, Collection<String> values) {
+        assert item != null : "Indexed item cannot be null";
+
+        Integer row = rowNumbers.get(item);
+        if (row == null) {
+            row = rows.size();
+            rows.add(item);
+            rowNumbers.put(item, row);
+            liveRows.set(row);
+        }
+        clearValues(item, row);
+        indexedValues.put(item, List.copyOf(values));
+        for (String value : values) {
+            bitmaps.computeIfAbsent(value, k -> new Bitmap()).set(row);
+        }
+    }
+
+    public void remove(T item) {
+        Integer row = rowNumbers.remove(item);
+        if (row == null) {
+            return;
+        }
+        clearValues(item, row);
+        indexedValues.remove(item);
+        liveRows.clear(row);
+        rows.set(row, null);
+        if (rows.size() >= MIN_ROWS_TO_COMPACT && rowNumbers.size() * 2 <= rows.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the rows having the value. The bitmap is shared with the index and must not be modified;
+     * combine it with {@link Bitmap#and}, {@link Bitmap#or} or {@link Bitmap#andNot} instead.
+     */
+    public Bitmap get(String value) {
+        Bitmap bitmap = bitmaps.get(value);
+        return bitmap == null ? new Bitmap() : bitmap;
+    }
+
+    public Bitmap all() {
+        return liveRows;
+    }
+
+    public boolean contains(Bitmap bitmap, T item) {
+        Integer row = rowNumbers.get(item);
+        return row != null && bitmap.contains(row);
+    }
+
+    public List<T> resolve(Bitmap bitmap) {
+        List<T> result = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(row -> result.add(rows.get(row)));
+        return result;
+    }
+
+    public Stream<T> stream(Bitmap bitmap) {
+        return bitmap.stream().mapToObj(rows::get);
+    }
+
+    int getRowCount() {
+        return rows.size();
+    }
+
+    // Renumbers the remaining items from 0 in their current order, so the bitmaps lose the removed rows.
+    // It runs after at least as many removals as there are rows left, so it costs O(1) per removal overall.
+    private void compact() {
+        List<T> remaining = new ArrayList<>(rowNumbers.size());
+        for (T item : rows) {
+            if (item != null) {
+                remaining.add(item);
+            }
+        }
+        rows.clear();
+        rowNumbers.clear();
+        bitmaps.clear();
+        liveRows = new Bitmap();
+        for (T item : remaining) {
+            int row = rows.size();
+            rows.add(item);
+            rowNumbers.put(item, row);
+            liveRows.set(row);
+            for (String value : indexedValues.get(item)) {
+                bitmaps.computeIfAbsent(value, k -> new Bitmap()).set(row);
+            }
+        }
+    }
+
+    private void clearValues(T item, int row) {
+        for (String value : indexedValues.getOrDefault(item, List.of())) {
+            Bitmap bitmap = bitmaps.get(value);
+            bitmap.clear(row);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+//@@author Basudeb2005
+/**
+ * Index of items by a half-open interval [start, end), answering whether an interval overlaps any indexed one
+ * in O(log n). It is an interval tree: a treap ordered by start, where each node also keeps the latest end
+ * below it, so a search can skip every subtree that ends before the interval starts.
+ */
+public class IntervalIndex<K extends Comparable<? super K>, T> {
+    private final Map<T, Node<K, T>> nodes = new HashMap<>();
+    // Fixed seed, so the shape of the tree, and so the order of equal starts, is the same on every run
+    private final Random priorities = new Random(42);
+    private Node<K, T> root;
+    private long insertions;
+
+    public void put(T item, K start, K end) {
+        assert item != null : "Indexed item cannot be null";
+        assert start != null && end != null : "Interval bounds cannot be null";
+        assert start.compareTo(end) < 0 : "Interval must end after it starts";
+
+        remove(item);
+        Node<K, T> node = new Node<>(item, start, end, insertions++, priorities.nextInt());
+        nodes.put(item, node);
+        root = insert(root, node);
+    }
+
+    public void remove(T item) {
+        Node<K, T> node = nodes.remove(item);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns an item whose interval overlaps [start, end), or null if there is none.
+     */
+    public T findOverlapping(K start, K end) {
+        Node<K, T> node = root;
+        while (node != null) {
+            if (node.start.compareTo(end) < 0 && node.end.compareTo(start) > 0) {
+                return node.item;
+            }
+            // If the left subtree reaches past start but holds no overlap, everything in it and to its
+            // right starts at or after end, so the right subtree cannot overlap either
+            if (node.left != null && node.left.maxEnd.compareTo(start) > 0) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns every item whose interval overlaps [start, end), in order of start.
+     */
+    public List<T> overlapping(K start, K end) {
+        List<T> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    private void collect(Node<K, T> node, K start, K end, List<T> result) {
+        if (node == null || node.maxEnd.compareTo(start) <= 0) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start.compareTo(end) < 0) {
+            if (node.end.compareTo(start) > 0) {
+                result.add(node.item);
+            }
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private Node<K, T> insert(Node<K, T> tree, Node<K, T> node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            split(tree, node);
+            update(node);
+            return node;
+        }
+        if (node.isBefore(tree)) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    // Splits tree into the nodes before and after pivot, which become the pivot's children
+    private void split(Node<K, T> tree, Node<K, T> pivot) {
+        if (tree == null) {
+            pivot.left = null;
+            pivot.right = null;
+            return;
+        }
+        if (tree.isBefore(pivot)) {
+            split(tree.right, pivot);
+            tree.right = pivot.left;
+            update(tree);
+            pivot.left = tree;
+        } else {
+            split(tree.left, pivot);
+            tree.left = pivot.right;
+            update(tree);
+            pivot.right = tree;
+        }
+    }
+
+    private Node<K, T> delete(Node<K, T> tree, Node<K, T> node) {
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (node.isBefore(tree)) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    private Node<K, T> merge(Node<K, T> before, Node<K, T> after) {
+        if (before == null) {
+            return after;
+        }
+        if (after == null) {
+            return before;
+        }
+        if (before.priority > after.priority) {
+            before.right = merge(before.right, after);
+            update(before);
+            return before;
+        }
+        after.left = merge(before, after.left);
+        update(after);
+        return after;
+    }
+
+    private static <K extends Comparable<? super K>, T> void update(Node<K, T> node) {
+        K maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.compareTo(maxEnd) > 0) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.compareTo(maxEnd) > 0) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static final class Node<K extends Comparable<? super K>, T> {
+        private final T item;
+        private final K start;
+        private final K end;
+        private final long sequence;
+        private final int priority;
+        private K maxEnd;
+        private Node<K, T> left;
+        private Node<K, T> right;
+
+        private Node(T item, K start, K end, long sequence, int priority) {
+            this.item = item;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        // Orders by start, then by insertion, so equal starts still have one place in the tree
+        private boolean isBefore(Node<K, T> other) {
+            int byStart = start.compareTo(other.start);
+            return byStart < 0 || (byStart == 0 && sequence < other.sequence);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of names by the Soundex code of each word, so names that sound alike ("Jon Smyth", "John Smith")
+ * are found with a few hash lookups instead of a scan over every name.
+ */
+public class PhoneticIndex<T> {
+    private static final String LETTER_CODES = "01230120022455012623010202";
+
+    private final Map<String, Set<T>> postings = new HashMap<>();
+    private final Map<T, Set<String>> indexedCodes = new HashMap<>();
+
+    public void put(T item, String name) {
+        assert item != null : "Indexed item cannot be null";
+        assert name != null : "Indexed name cannot be null";
+
+        remove(item);
+        Set<String> codes = codesOf(name);
+        indexedCodes.put(item, codes);
+        for (String code : codes) {
+            postings.computeIfAbsent(code, k -> new LinkedHashSet<>()).add(item);
+        }
+    }
+
+    public void remove(T item) {
+        Set<String> codes = indexedCodes.remove(item);
+        if (codes == null) {
+            return;
+        }
+        for (String code : codes) {
+            Set<T> items = postings.get(code);
+            items.remove(item);
+            if (items.isEmpty()) {
+                postings.remove(code);
+            }
+        }
+    }
+
+    /**
+     * Returns the items whose name has a word sounding like every word of the query.
+     */
+    public List<T> search(String name) {
+        Set<String> queryCodes = codesOf(name);
+        List<T> matches = new ArrayList<>();
+        if (queryCodes.isEmpty()) {
+            return matches;
+        }
+
+        // Walk the shortest posting list and probe the others
+        Set<T> smallest = null;
+        for (String code : queryCodes) {
+            Set<T> items = postings.getOrDefault(code, Set.of());
+            if (smallest == null || items.size() < smallest.size()) {
+                smallest = items;
+            }
+        }
+        for (T item : smallest) {
+            if (indexedCodes.get(item).containsAll(queryCodes)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> codesOf(String name) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (String word : name.trim().split("\\s+")) {
+            String code = soundex(word);
+            if (!code.isEmpty()) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Returns the American Soundex code of a word, e.g. "Robert" and "Rupert" both give "R163",
+     * or an empty string if the word has no letters.
+     */
+    static String soundex(String word) {
+        StringBuilder code = new StringBuilder(4);
+        char lastDigit = 0;
+        for (int i = 0; i < word.length() && code.length() < 4; i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            char digit = LETTER_CODES.charAt(c - 'A');
+            if (code.length() == 0) {
+                code.append(c);
+            } else if (digit != '0' && digit != lastDigit) {
+                code.append(digit);
+            }
+            // H and W do not separate letters with the same code, vowels do
+            if (c != 'H' && c != 'W') {
+                lastDigit = digit;
+            }
+        }
+        if (code.length() == 0) {
+            return "";
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+}
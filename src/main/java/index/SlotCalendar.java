@@ -0,0 +1,145 @@
+package index;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//@@author Basudeb2005
+/**
+ * Busy 15-minute slots of one schedule, kept as a 96-bit map per day with bookings. A slot is busy if any
+ * booking touches it, so a run of free slots never overlaps a booking. Finding a run of n free slots takes
+ * O(log n) shifts of the two words of a day, however full the day is.
+ */
+public class SlotCalendar {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORD_BITS = 64;
+
+    private final Map<LocalDate, long[]> busyDays = new HashMap<>();
+
+    /**
+     * Marks every slot that [start, end) touches as busy.
+     */
+    public void occupy(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDate date = cursor.toLocalDate();
+            LocalDateTime nextDay = date.plusDays(1).atStartOfDay();
+            int first = slotAtOrBefore(cursor.toLocalTime());
+            int last = end.isBefore(nextDay) ? slotAtOrAfter(end.toLocalTime()) : SLOTS_PER_DAY;
+            long[] busy = busyDays.computeIfAbsent(date, d -> new long[2]);
+            busy[0] |= maskOf(first, last, 0);
+            busy[1] |= maskOf(first, last, WORD_BITS);
+            cursor = nextDay;
+        }
+    }
+
+    /**
+     * Forgets every booking on the date, so the day can be filled again from its remaining bookings.
+     */
+    public void clear(LocalDate date) {
+        busyDays.remove(date);
+    }
+
+    /**
+     * Returns the earliest start of {@code length} free time that begins no sooner than {@code earliest}
+     * and lies within [opens, closes) of its day, looking at most {@code days} days ahead, or null if
+     * there is none. Starts fall on slot boundaries.
+     */
+    public LocalDateTime findFree(LocalDateTime earliest, Duration length, LocalTime opens, LocalTime closes,
+                                  int days) {
+        return findFree(List.of(this), earliest, length, opens, closes, days);
+    }
+
+    /**
+     * Like {@link #findFree(LocalDateTime, Duration, LocalTime, LocalTime, int)}, for time that is free
+     * in every one of the calendars, such as a patient's, a doctor's and a room's.
+     */
+    public static LocalDateTime findFree(List<SlotCalendar> calendars, LocalDateTime earliest, Duration length,
+                                         LocalTime opens, LocalTime closes, int days) {
+        int needed = (int) Math.max(1, (length.toMinutes() + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        int openSlot = slotAtOrAfter(opens);
+        int closeSlot = closes.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY : slotAtOrBefore(closes);
+        int lastStart = closeSlot - needed;
+        for (int day = 0; day < days; day++) {
+            LocalDate date = earliest.toLocalDate().plusDays(day);
+            int from = day == 0 ? Math.max(openSlot, slotAtOrAfter(earliest.toLocalTime())) : openSlot;
+            if (from > lastStart) {
+                continue;
+            }
+            int slot = firstFreeRun(busyOn(calendars, date), needed, from, lastStart);
+            if (slot >= 0) {
+                return date.atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+            }
+        }
+        return null;
+    }
+
+    private static long[] busyOn(List<SlotCalendar> calendars, LocalDate date) {
+        long[] combined = null;
+        for (SlotCalendar calendar : calendars) {
+            long[] busy = calendar.busyDays.get(date);
+            if (busy == null) {
+                continue;
+            }
+            combined = combined == null ? busy : new long[] {combined[0] | busy[0], combined[1] | busy[1]};
+        }
+        return combined;
+    }
+
+    // Returns the first slot in [from, lastStart] that starts a run of needed free slots, or -1
+    private static int firstFreeRun(long[] busy, int needed, int from, int lastStart) {
+        if (busy == null) {
+            return from;
+        }
+        long low = ~busy[0];
+        long high = ~busy[1] & maskOf(WORD_BITS, SLOTS_PER_DAY, WORD_BITS);
+        // After each step, bit i is set if the next 'covered' slots from i are all free
+        int covered = 1;
+        while (covered < needed) {
+            int step = Math.min(covered, needed - covered);
+            long shiftedLow;
+            long shiftedHigh;
+            if (step < WORD_BITS) {
+                shiftedLow = (low >>> step) | (high << (WORD_BITS - step));
+                shiftedHigh = high >>> step;
+            } else {
+                shiftedLow = high >>> (step - WORD_BITS);
+                shiftedHigh = 0;
+            }
+            low &= shiftedLow;
+            high &= shiftedHigh;
+            covered += step;
+        }
+        low &= maskOf(from, lastStart + 1, 0);
+        high &= maskOf(from, lastStart + 1, WORD_BITS);
+        if (low != 0) {
+            return Long.numberOfTrailingZeros(low);
+        }
+        return high != 0 ? WORD_BITS + Long.numberOfTrailingZeros(high) : -1;
+    }
+
+    // Bits of the slots in [from, to) that fall in the word holding slots wordStart to wordStart + 63
+    private static long maskOf(int from, int to, int wordStart) {
+        int low = Math.max(from - wordStart, 0);
+        int high = Math.min(to - wordStart, WORD_BITS);
+        if (low >= high) {
+            return 0;
+        }
+        long belowHigh = high == WORD_BITS ? -1L : (1L << high) - 1;
+        return belowHigh & (-1L << low);
+    }
+
+    private static int slotAtOrBefore(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    private static int slotAtOrAfter(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+}
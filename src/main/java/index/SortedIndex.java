@@ -0,0 +1,69 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Index of items by an ordered key, answering range queries in O(log n + k) for k matching items.
+ */
+public class SortedIndex<K extends Comparable<? super K>, T> {
+    private final NavigableMap<K, Set<T>> entries = new TreeMap<>();
+    private final Map<T, K> indexedKeys = new HashMap<>();
+
+    public void put(T item, K key) {
+        assert item != null : "Indexed item cannot be null";
+        assert key != null : "Index key cannot be null";
+
+        remove(item);
+        indexedKeys.put(item, key);
+        entries.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(item);
+    }
+
+    public void remove(T item) {
+        K key = indexedKeys.remove(item);
+        if (key == null) {
+            return;
+        }
+        Set<T> items = entries.get(key);
+        items.remove(item);
+        if (items.isEmpty()) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns the items with a key between {@code from} and {@code to}, both inclusive, in key order.
+     */
+    public List<T> range(K from, K to) {
+        List<T> result = new ArrayList<>();
+        if (from.compareTo(to) > 0) {
+            return result;
+        }
+        for (Collection<T> items : entries.subMap(from, true, to, true).values()) {
+            result.addAll(items);
+        }
+        return result;
+    }
+
+    /**
+     * Lazily streams the items with a key between {@code from} and {@code to}, both inclusive, in key order.
+     */
+    public Stream<T> streamRange(K from, K to) {
+        if (from.compareTo(to) > 0) {
+            return Stream.empty();
+        }
+        return entries.subMap(from, true, to, true).values().stream().flatMap(Set::stream);
+    }
+
+    public int size() {
+        return indexedKeys.size();
+    }
+}
@@ -0,0 +1,144 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//@@author Basudeb2005
+/**
+ * Items due at whole ticks, kept in a hierarchical timing wheel. Each of the four levels has 64 buckets,
+ * and a bucket of level L covers 64^L ticks, so the wheel reaches 64^4 ticks ahead (about 31 years of
+ * minutes). Scheduling and cancelling an item take O(1). Advancing one tick fires one bucket of level 0,
+ * and every 64 ticks a bucket of the next level is spread out over the level below.
+ * Items due further ahead than the wheel reaches wait in its last bucket and are placed again as it turns.
+ */
+public class TimingWheel<T> {
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int BUCKETS = 1 << BITS_PER_LEVEL;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS_PER_LEVEL * LEVELS);
+
+    private final Node<T>[][] buckets;
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+    private long now;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long startTick) {
+        now = startTick;
+        buckets = new Node[LEVELS][BUCKETS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < BUCKETS; index++) {
+                Node<T> head = new Node<>(null, 0);
+                head.previous = head;
+                head.next = head;
+                buckets[level][index] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedules the item to fire at {@code dueTick}, replacing any earlier schedule of the same item.
+     * An item due at or before the current tick fires at the next one.
+     */
+    public synchronized void schedule(T item, long dueTick) {
+        assert item != null : "Scheduled item cannot be null";
+
+        cancel(item);
+        Node<T> node = new Node<>(item, Math.max(dueTick, now + 1));
+        nodes.put(item, node);
+        place(node);
+    }
+
+    public synchronized boolean cancel(T item) {
+        Node<T> node = nodes.remove(item);
+        if (node == null) {
+            return false;
+        }
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        return true;
+    }
+
+    public synchronized boolean isScheduled(T item) {
+        return nodes.containsKey(item);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized long getTick() {
+        return now;
+    }
+
+    /**
+     * Turns the wheel up to {@code tick} and returns the items that fell due on the way, in order of due tick.
+     * Ticks with nothing scheduled are skipped at once.
+     */
+    public synchronized List<T> advanceTo(long tick) {
+        List<T> fired = new ArrayList<>();
+        while (now < tick) {
+            if (nodes.isEmpty()) {
+                now = tick;
+                break;
+            }
+            now++;
+            for (int level = 1; level < LEVELS && indexAt(now, level - 1) == 0; level++) {
+                cascade(buckets[level][indexAt(now, level)]);
+            }
+            Node<T> head = buckets[0][(int) (now & MASK)];
+            for (Node<T> node = head.next; node != head; node = node.next) {
+                nodes.remove(node.item);
+                fired.add(node.item);
+            }
+            head.previous = head;
+            head.next = head;
+        }
+        return fired;
+    }
+
+    // Puts the node in the lowest level whose buckets still tell its tick apart from now
+    private void place(Node<T> node) {
+        long delay = node.dueTick - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (BITS_PER_LEVEL * (level + 1))) {
+            level++;
+        }
+        long tick = delay < SPAN ? node.dueTick : now + SPAN - 1;
+        Node<T> head = buckets[level][indexAt(tick, level)];
+        node.previous = head.previous;
+        node.next = head;
+        head.previous.next = node;
+        head.previous = node;
+    }
+
+    // Places the bucket's items again now that they are closer
+    private void cascade(Node<T> head) {
+        Node<T> node = head.next;
+        head.previous = head;
+        head.next = head;
+        while (node != head) {
+            Node<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private static int indexAt(long tick, int level) {
+        return (int) ((tick >>> (BITS_PER_LEVEL * level)) & MASK);
+    }
+
+    private static final class Node<T> {
+        private final T item;
+        private final long dueTick;
+        private Node<T> previous;
+        private Node<T> next;
+
+        private Node(T item, long dueTick) {
+            this.item = item;
+            this.dueTick = dueTick;
+        }
+    }
+}
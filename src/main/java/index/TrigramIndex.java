@@ -0,0 +1,162 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant text index. Every indexed text is broken into padded trigrams, so a lookup only has to
+ * verify the items that share enough trigrams with the query instead of every item in the index.
+ */
+public class TrigramIndex<T> {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MAX_DISTANCE = 3;
+
+    private final Map<String, Set<T>> postings = new HashMap<>();
+    private final Map<T, String> indexedTexts = new HashMap<>();
+
+    public void put(T item, String text) {
+        assert item != null : "Indexed item cannot be null";
+        assert text != null : "Indexed text cannot be null";
+
+        remove(item);
+        String normalized = normalize(text);
+        indexedTexts.put(item, normalized);
+        for (String gram : trigramsOf(normalized)) {
+            postings.computeIfAbsent(gram, k -> new LinkedHashSet<>()).add(item);
+        }
+    }
+
+    public void remove(T item) {
+        String normalized = indexedTexts.remove(item);
+        if (normalized == null) {
+            return;
+        }
+        for (String gram : trigramsOf(normalized)) {
+            Set<T> items = postings.get(gram);
+            items.remove(item);
+            if (items.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns the items whose text is within a small edit distance of the query, closest first.
+     * The allowed distance grows with the query length, up to {@value #MAX_DISTANCE}.
+     */
+    public List<T> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int maxDistance = Math.min(MAX_DISTANCE, Math.max(1, normalized.length() / 4));
+
+        // An edit touches at most GRAM_LENGTH + 1 trigrams (a transposition), so any text, or for a one-word
+        // query any word of it, within maxDistance edits must still share this many of the query's trigrams.
+        Set<String> queryGrams = new HashSet<>();
+        addPaddedTrigrams(queryGrams, normalized);
+        int minShared = Math.max(1, queryGrams.size() - maxDistance * (GRAM_LENGTH + 1));
+
+        Map<T, Integer> sharedCounts = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (T item : postings.getOrDefault(gram, Set.of())) {
+                sharedCounts.merge(item, 1, Integer::sum);
+            }
+        }
+
+        Map<T, Integer> distances = new HashMap<>();
+        for (Map.Entry<T, Integer> entry : sharedCounts.entrySet()) {
+            if (entry.getValue() < minShared) {
+                continue;
+            }
+            int distance = distanceTo(normalized, indexedTexts.get(entry.getKey()), maxDistance);
+            if (distance <= maxDistance) {
+                distances.put(entry.getKey(), distance);
+            }
+        }
+
+        List<T> matches = new ArrayList<>(distances.keySet());
+        matches.sort(Comparator.comparing((T item) -> distances.get(item))
+                .thenComparing(item -> indexedTexts.get(item)));
+        return matches;
+    }
+
+    // A single-word query is also compared against each word of the text, so "Jnae" finds "Jane Smith".
+    private static int distanceTo(String query, String text, int maxDistance) {
+        int best = boundedDistance(query, text, maxDistance);
+        if (query.indexOf(' ') < 0) {
+            for (String word : text.split(" ")) {
+                best = Math.min(best, boundedDistance(query, word, maxDistance));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes the optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * giving up with {@code maxDistance + 1} as soon as the distance is known to exceed the bound.
+     */
+    static int boundedDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previousRow = new int[b.length() + 1];
+        int[] currentRow = new int[b.length() + 1];
+        int[] nextRow = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            currentRow[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            int[] twoRowsBack = previousRow;
+            previousRow = currentRow;
+            currentRow = nextRow;
+            currentRow[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previousRow[j] + 1, currentRow[j - 1] + 1), previousRow[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, twoRowsBack[j - 2] + 1);
+                }
+                currentRow[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            nextRow = twoRowsBack;
+        }
+        return Math.min(currentRow[b.length()], maxDistance + 1);
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    // The whole text is padded, and so is each of its words, so a one-word query shares as many trigrams
+    // with a later word of the text as with the first one
+    private static Set<String> trigramsOf(String normalized) {
+        Set<String> grams = new HashSet<>();
+        addPaddedTrigrams(grams, normalized);
+        if (normalized.indexOf(' ') >= 0) {
+            for (String word : normalized.split(" ")) {
+                addPaddedTrigrams(grams, word);
+            }
+        }
+        return grams;
+    }
+
+    private static void addPaddedTrigrams(Set<String> grams, String text) {
+        String padded = "  " + text + " ";
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+    }
+}
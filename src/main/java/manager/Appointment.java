@@ -1,5 +1,6 @@
 package manager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -9,39 +10,79 @@ public class Appointment {
 
     public static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     public static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd h:mm a");
+    public static final Duration DEFAULT_DURATION = Duration.ofMinutes(30);
 
-    private static int runningId = 100;
+    private static final String ID_PREFIX = "A";
+    private static final IdAllocator ID_ALLOCATOR = new IdAllocator("appointment", 100, 100);
     private final String id;
     private final String nric;
     private final LocalDateTime dateTime;
     private final String description;
+    private final Duration duration;
+    private final String doctor;
+    private final String room;
     private boolean isDone;
+    private volatile long version;
+    private volatile RenderedText renderedView;
 
     public Appointment(String nric, LocalDateTime dateTime, String description) {
+        this(nric, dateTime, description, DEFAULT_DURATION);
+    }
+
+    public Appointment(String nric, LocalDateTime dateTime, String description, Duration duration) {
+        this(nric, dateTime, description, duration, null, null);
+    }
+
+    /**
+     * Creates an appointment that also needs a doctor and a room. Either may be null if not needed.
+     */
+    public Appointment(String nric, LocalDateTime dateTime, String description, Duration duration,
+                       String doctor, String room) {
         assert nric != null && !nric.isBlank() : "NRIC cannot be null or blank";
         assert dateTime != null : "DateTime cannot be null";
         assert description != null && !description.isBlank() : "Description cannot be null or blank";
+        assert duration != null && !duration.isNegative() && !duration.isZero() : "Duration must be positive";
         
-        this.id = "A" + runningId++;
+        this.id = ID_PREFIX + ID_ALLOCATOR.next(ID_PREFIX);
         this.nric = nric;
         this.dateTime = dateTime;
         this.description = description;
+        this.duration = duration;
+        this.doctor = doctor;
+        this.room = room;
         this.isDone = false;
     }
 
     public Appointment(String id, String nric, LocalDateTime dateTime, String description) {
+        this(id, nric, dateTime, description, DEFAULT_DURATION);
+    }
+
+    public Appointment(String id, String nric, LocalDateTime dateTime, String description, Duration duration) {
+        this(id, nric, dateTime, description, duration, null, null);
+    }
+
+    public Appointment(String id, String nric, LocalDateTime dateTime, String description, Duration duration,
+                       String doctor, String room) {
         this.id = id;
         this.nric = nric;
         this.dateTime = dateTime;
         this.description = description;
+        this.duration = duration;
+        this.doctor = doctor;
+        this.room = room;
     }
 
     public String getId() {
         return id;
     }
 
+    // IDs only move forward, so an older countId header can never cause an ID to be reused
     public static void setRunningId(int newId) {
-        runningId = newId;
+        ID_ALLOCATOR.advanceTo(ID_PREFIX, newId);
+    }
+
+    public static IdAllocator getIdAllocator() {
+        return ID_ALLOCATOR;
     }
 
     public String getNric() {
@@ -60,8 +101,39 @@ public class Appointment {
         return dateTime;
     }
 
+    public Duration getDuration() {
+        return duration;
+    }
+
+    // Appointments occupy [start, end), so one may start exactly when the previous one ends
+    public LocalDateTime getEndDateTime() {
+        return dateTime.plus(duration);
+    }
+
+    public String getDoctor() {
+        return doctor;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    // Returns the name of the resource of that kind this appointment needs, or null if it needs none
+    public String getResource(Resource kind) {
+        switch (kind) {
+        case PATIENT:
+            return nric;
+        case DOCTOR:
+            return doctor;
+        case ROOM:
+            return room;
+        default:
+            throw new AssertionError("Unknown resource " + kind);
+        }
+    }
+
     public static int getRunningId() {
-        return runningId;
+        return (int) ID_ALLOCATOR.peek(ID_PREFIX);
     }
 
     public String getDescription() {
@@ -74,14 +146,17 @@ public class Appointment {
 
     public void markAsDone() {
         this.isDone = true;
+        version++;
     }
 
     public void unmarkAsDone() {
         this.isDone = false;
+        version++;
     }
 
     public void setIsDone(boolean mark) {
         this.isDone = mark;
+        version++;
     }
 
     public String getStatusIcon() {
@@ -90,12 +165,24 @@ public class Appointment {
 
     @Override
     public String toString() {
-        return "[" + id + "]" + "[" + this.getStatusIcon() + "]" + " - "
-                + nric + " - " + dateTime.format(OUTPUT_FORMAT) + " - " + description;
+        long current = version;
+        RenderedText cached = renderedView;
+        if (cached != null && cached.isCurrent(current)) {
+            return cached.getText();
+        }
+        StringBuilder result = new StringBuilder(64);
+        Renderer.appendAppointment(result, this);
+        String text = result.toString();
+        renderedView = new RenderedText(current, text);
+        return text;
     }
 
     public String toFileFormat() {
-        return id.substring(1) + "|" + this.isDone + "|" + this.nric + "|" +
-                dateTime.format(OUTPUT_FORMAT) + "|" + this.description;
+        String line = id.substring(1) + "|" + this.isDone + "|" + this.nric + "|" +
+                dateTime.format(OUTPUT_FORMAT) + "|" + this.description + "|" + duration.toMinutes();
+        if (doctor == null && room == null) {
+            return line;
+        }
+        return line + "|" + (doctor == null ? "" : doctor) + "|" + (room == null ? "" : room);
     }
 }
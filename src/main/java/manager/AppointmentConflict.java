@@ -0,0 +1,32 @@
+package manager;
+
+//@@author Basudeb2005
+/**
+ * Two appointments that overlap in time and share something that can only be in one place at a time.
+ */
+public class AppointmentConflict {
+    private final Appointment first;
+    private final Appointment second;
+    private final String sharedBy;
+
+    public AppointmentConflict(Appointment first, Appointment second, String sharedBy) {
+        assert first != null && second != null : "Conflicting appointments cannot be null";
+        this.first = first;
+        this.second = second;
+        this.sharedBy = sharedBy;
+    }
+
+    // The appointment that starts first, or was booked first when both start together
+    public Appointment getFirst() {
+        return first;
+    }
+
+    public Appointment getSecond() {
+        return second;
+    }
+
+    // What both appointments need, e.g. "patient S1234567A"
+    public String getSharedBy() {
+        return sharedBy;
+    }
+}
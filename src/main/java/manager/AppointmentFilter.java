@@ -0,0 +1,105 @@
+package manager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+//@@author Basudeb2005
+public class AppointmentFilter {
+    private String nric;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Boolean isDone;
+    private YearMonth month;
+    private String gender;
+    private int offset = 0;
+    private int limit = Integer.MAX_VALUE;
+
+    public String getNric() {
+        return nric;
+    }
+
+    public void setNric(String nric) {
+        this.nric = nric;
+    }
+
+    public void setDateRange(LocalDate fromDate, LocalDate toDate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    public boolean hasDateRange() {
+        return fromDate != null || toDate != null;
+    }
+
+    public LocalDateTime getFromDateTime() {
+        return fromDate == null ? LocalDateTime.MIN : fromDate.atStartOfDay();
+    }
+
+    public LocalDateTime getToDateTime() {
+        return toDate == null ? LocalDateTime.MAX : toDate.atTime(LocalTime.MAX);
+    }
+
+    public Boolean getIsDone() {
+        return isDone;
+    }
+
+    public void setIsDone(Boolean isDone) {
+        this.isDone = isDone;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public void setMonth(YearMonth month) {
+        this.month = month;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public boolean hasCriteria() {
+        return nric != null || hasDateRange() || hasAttributeCriteria();
+    }
+
+    public boolean hasAttributeCriteria() {
+        return isDone != null || month != null || gender != null;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        assert offset >= 0 : "Offset cannot be negative";
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        assert limit >= 0 : "Limit cannot be negative";
+        this.limit = limit;
+    }
+
+    /**
+     * Checks the NRIC and date range criteria. Status, month and gender are matched against the bitmap
+     * index instead.
+     */
+    public boolean matches(Appointment appointment) {
+        if (nric != null && !appointment.getNric().equalsIgnoreCase(nric.trim())) {
+            return false;
+        }
+        return !hasDateRange() || (!appointment.getDateTime().isBefore(getFromDateTime())
+                && !appointment.getDateTime().isAfter(getToDateTime()));
+    }
+}
@@ -0,0 +1,122 @@
+package manager;
+
+import exception.UnloadedStorageException;
+import storage.Storage;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//@@author Basudeb2005
+/**
+ * Hands out increasing IDs for one or more keyed sequences, e.g. one sequence per patient.
+ * Taking an ID is a single atomic increment. Only when a sequence runs past its reserved block does
+ * the allocator reserve the next block and persist its upper bound before any ID in it is used,
+ * so a restart after a crash resumes above every ID that may have been handed out.
+ */
+public class IdAllocator {
+    private final String name;
+    private final long firstId;
+    private final int blockSize;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public IdAllocator(String name, long firstId, int blockSize) {
+        assert blockSize > 0 : "Block size must be positive";
+        this.name = name;
+        this.firstId = firstId;
+        this.blockSize = blockSize;
+    }
+
+    public long next(String key) {
+        Sequence sequence = sequences.computeIfAbsent(key, k -> new Sequence(firstId));
+        long id = sequence.next.getAndIncrement();
+        if (id >= sequence.reservedUpTo) {
+            reserve(key, sequence, id);
+        }
+        return id;
+    }
+
+    public long peek(String key) {
+        Sequence sequence = sequences.get(key);
+        return sequence == null ? firstId : sequence.next.get();
+    }
+
+    /**
+     * Makes sure the sequence continues from at least {@code id}, e.g. past the IDs found in loaded data.
+     */
+    public void advanceTo(String key, long id) {
+        Sequence sequence = sequences.computeIfAbsent(key, k -> new Sequence(firstId));
+        sequence.next.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Continues every sequence from the bounds persisted by an earlier run. IDs between the last one used
+     * and the bound are skipped rather than risk handing out an ID twice.
+     */
+    public void restore() {
+        try {
+            for (Map.Entry<String, Long> entry : Storage.loadIdReservations(name).entrySet()) {
+                advanceTo(entry.getKey(), entry.getValue());
+            }
+        } catch (UnloadedStorageException e) {
+            // Nothing was reserved before, so the loaded data alone decides where sequences resume
+        }
+    }
+
+    /**
+     * Persists the exact next ID of every sequence, so a clean shutdown leaves no gap in the numbering.
+     * Only call this once no more IDs are being taken.
+     */
+    public synchronized void release() {
+        Map<String, Long> bounds = new TreeMap<>();
+        for (Map.Entry<String, Sequence> entry : sequences.entrySet()) {
+            bounds.put(entry.getKey(), entry.getValue().next.get());
+        }
+        try {
+            persist(bounds);
+        } catch (UnloadedStorageException e) {
+            // The bounds reserved earlier still hold, so a restart only skips the unused part of each block
+            return;
+        }
+        for (Sequence sequence : sequences.values()) {
+            sequence.reservedUpTo = sequence.next.get();
+        }
+    }
+
+    // The new bound is persisted before it is published, so no ID above the bound on disk is ever handed out
+    private synchronized void reserve(String key, Sequence sequence, long id) {
+        if (id < sequence.reservedUpTo) {
+            return;
+        }
+        Map<String, Long> bounds = new TreeMap<>();
+        for (Map.Entry<String, Sequence> entry : sequences.entrySet()) {
+            bounds.put(entry.getKey(), entry.getValue().reservedUpTo);
+        }
+        bounds.put(key, id + blockSize);
+        try {
+            persist(bounds);
+        } catch (UnloadedStorageException e) {
+            throw new IllegalStateException("Unable to reserve new IDs, so nothing was added. " + e.getMessage());
+        }
+        sequence.reservedUpTo = id + blockSize;
+    }
+
+    private void persist(Map<String, Long> bounds) throws UnloadedStorageException {
+        if (!Storage.isLoaded()) {
+            // Without storage nothing is saved at all, so there is no persisted ID a restart could reuse
+            return;
+        }
+        Storage.saveIdReservations(name, bounds);
+    }
+
+    private static class Sequence {
+        private final AtomicLong next;
+        private volatile long reservedUpTo;
+
+        private Sequence(long firstId) {
+            this.next = new AtomicLong(firstId);
+            this.reservedUpTo = firstId;
+        }
+    }
+}
@@ -2,184 +2,590 @@ package manager;
 
 import exception.DuplicatePatientIDException;
 import exception.UnloadedStorageException;
-import miscellaneous.Ui;
+import index.Bitmap;
+import index.BitmapIndex;
+import index.PhoneticIndex;
+import index.SlotCalendar;
+import index.SortedIndex;
+import index.TrigramIndex;
 import storage.Storage;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Holds the clinic's patients, appointments and prescriptions. One instance can be shared by several
+ * front desk sessions: lookups take the read lock and run alongside each other, while mutators take
+ * the write lock, so every list, index and save sees a consistent state. Every write starts a new
+ * version, and plain listings read a {@link Snapshot} of the latest version's lists without locking.
+ * Changes can be grouped in a transaction, which is saved once at commit or undone at rollback.
+ */
 public class ManagementSystem {
+    private static final int SLOT_SEARCH_DAYS = 366;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long version;
+    private volatile Snapshot published;
     private final List<Appointment> appointments;
     private final List<Patient> patients;
     private final List<Prescription> prescriptions;
+    private final List<RecurringAppointment> recurringAppointments;
+    private final TrigramIndex<Patient> patientNameIndex = new TrigramIndex<>();
+    private final PhoneticIndex<Patient> patientSoundIndex = new PhoneticIndex<>();
+    private final SortedIndex<LocalDate, Patient> patientDobIndex = new SortedIndex<>();
+    private final BitmapIndex<Patient> patientBitmaps = new BitmapIndex<>();
+    private final Map<String, Patient> patientsByNric = new HashMap<>();
+    private final BitmapIndex<Appointment> appointmentBitmaps = new BitmapIndex<>();
+    private final SortedIndex<LocalDateTime, Appointment> appointmentTimeIndex = new SortedIndex<>();
+    private final Map<String, List<Prescription>> prescriptionsByPatient = new HashMap<>();
+    // Appointments of each day in order of start, so the day's list is ready without sorting
+    private final Map<LocalDate, List<Appointment>> appointmentsByDay = new HashMap<>();
+    // Bookings of each patient, doctor and room, by resource name in upper case
+    private final Map<Resource, Map<String, ResourceSchedule>> schedules = new EnumMap<>(Resource.class);
+    // Undo actions of the open transaction, newest first, or null outside a transaction
+    private Deque<Runnable> undoLog;
+    // Set while several front desk sessions write to this manager, which then has no transactions
+    private boolean isShared;
+    private ReminderScheduler reminders;
+    // Prescriptions of patients deleted in the open transaction, whose HTML files are deleted at commit
+    private List<Prescription> prescriptionsDeletedInTransaction;
+    private boolean wasDeferringSaves;
 
     public ManagementSystem(List<Patient> loadedPatients, List<Appointment> loadedAppointments) {
-        assert loadedPatients != null : "Patient list cannot be null";
-        assert loadedAppointments != null : "Appointment list cannot be null";
-        appointments = loadedAppointments;
-        patients = loadedPatients;
-        prescriptions = new ArrayList<>();
+        this(loadedPatients, loadedAppointments, new ArrayList<>());
     }
 
     public ManagementSystem(List<Patient> loadedPatients, List<Appointment> loadedAppointments, 
                            List<Prescription> loadedPrescriptions) {
+        this(loadedPatients, loadedAppointments, loadedPrescriptions, new ArrayList<>());
+    }
+
+    public ManagementSystem(List<Patient> loadedPatients, List<Appointment> loadedAppointments,
+                            List<Prescription> loadedPrescriptions, List<RecurringAppointment> loadedRecurring) {
         assert loadedPatients != null : "Patient list cannot be null";
         assert loadedAppointments != null : "Appointment list cannot be null";
         assert loadedPrescriptions != null : "Prescription list cannot be null";
+        assert loadedRecurring != null : "Recurring appointment list cannot be null";
         appointments = loadedAppointments;
         patients = loadedPatients;
         prescriptions = loadedPrescriptions;
+        recurringAppointments = loadedRecurring;
+
+        for (Resource kind : Resource.values()) {
+            schedules.put(kind, new HashMap<>());
+        }
+        for (Patient patient : patients) {
+            indexPatient(patient);
+        }
+        for (Appointment appointment : appointments) {
+            Patient patient = findPatientByNric(appointment.getNric());
+            if (patient != null && !patient.getAppointments().contains(appointment)) {
+                patient.addAppointment(appointment);
+            }
+            indexAppointment(appointment, patient);
+        }
+        for (Prescription prescription : prescriptions) {
+            indexPrescription(prescription);
+        }
+        for (RecurringAppointment series : recurringAppointments) {
+            indexSeries(series);
+        }
     }
 
     public List<Patient> getPatients() {
-        return patients;
+        return snapshot().getPatients();
     }
 
     public List<Appointment> getAppointments() {
-        return appointments;
+        return snapshot().getAppointments();
     }
 
     public void addPatient(Patient patient) throws DuplicatePatientIDException, UnloadedStorageException {
         assert patient != null : "Patient cannot be null";
         assert patients != null : "Patient list cannot be null";
 
-        for (Patient existingPatient : patients) {
-            assert existingPatient != null : "Existing patient in list cannot be null";
-            if (existingPatient.getId().equals(patient.getId())) {
+        lock.writeLock().lock();
+        try {
+            if (isRegistered(patient.getId())) {
                 throw new DuplicatePatientIDException("Patient ID already exists!");
             }
+            patients.add(patient);
+            indexPatient(patient);
+            recordUndo(() -> {
+                patients.remove(patient);
+                unindexPatient(patient);
+            });
+            Storage.savePatients(patients);
+        } finally {
+            unlockWrite();
         }
-        patients.add(patient);
-        Storage.savePatients(patients);
     }
 
     public Patient deletePatient(String nric) throws UnloadedStorageException {
         assert nric != null && !nric.isBlank() : "NRIC must not be null or blank";
         assert patients != null : "Patient list cannot be null";
-        
-        for (Patient patient : patients) {
-            if (patient.getId().equals(nric)) {
-                patients.remove(patient);
-                Storage.savePatients(patients);
-                return patient;
+
+        lock.writeLock().lock();
+        try {
+            for (Patient patient : patients) {
+                if (patient.getId().equals(nric)) {
+                    int position = patients.indexOf(patient);
+                    boolean hasRecords = !patient.getAppointments().isEmpty()
+                            || prescriptionsByPatient.containsKey(prescriptionKey(patient.getId()))
+                            || recurringAppointments.stream().anyMatch(series -> isSeriesOf(series, patient));
+                    List<Prescription> deletedPrescriptions = List.copyOf(
+                            prescriptionsByPatient.getOrDefault(prescriptionKey(patient.getId()), List.of()));
+                    Runnable restoreAppointments = removeAppointmentsOf(patient);
+                    Runnable restorePrescriptions = removePrescriptionsOf(patient);
+                    Runnable restoreSeries = removeSeriesOf(patient);
+                    patients.remove(patient);
+                    unindexPatient(patient);
+                    recordUndo(() -> {
+                        patients.add(position, patient);
+                        indexPatient(patient);
+                        restorePrescriptions.run();
+                        restoreAppointments.run();
+                        restoreSeries.run();
+                    });
+                    if (!hasRecords) {
+                        Storage.savePatients(patients);
+                    } else {
+                        Storage.saveAll(patients, appointments, prescriptions, recurringAppointments);
+                    }
+                    if (prescriptionsDeletedInTransaction != null) {
+                        prescriptionsDeletedInTransaction.addAll(deletedPrescriptions);
+                    } else if (!deletedPrescriptions.isEmpty()) {
+                        Storage.deletePrescriptionHtml(deletedPrescriptions);
+                    }
+                    return patient;
+                }
             }
+            return null;
+        } finally {
+            unlockWrite();
         }
-        return null;
     }
 
     //@@author dylancmznus
     public Patient viewPatient(String nric) {
         assert nric != null && !nric.isBlank() : "NRIC must not be null or blank";
-        Patient matchedPatient = null;
-        for (Patient patient : patients) {
-            if (patient.getId().equals(nric)) {
-                matchedPatient = patient;
-                break;
+
+        lock.readLock().lock();
+        try {
+            Patient matchedPatient = null;
+            for (Patient patient : patients) {
+                if (patient.getId().equals(nric)) {
+                    matchedPatient = patient;
+                    break;
+                }
             }
+            return matchedPatient;
+        } finally {
+            lock.readLock().unlock();
         }
-        return matchedPatient;
     }
 
     //@@author jyukuan
-    public void editPatient(String nric, String newName, String newDob, String newGender,
-                            String newAddress, String newPhone) throws UnloadedStorageException {
-        Patient patient = findPatientByNric(nric);
-        if (patient == null) {
-            System.out.println("Patient with NRIC " + nric + " not found.");
-            return;
+    public Patient editPatient(String nric, String newName, LocalDate newDob, String newGender,
+                               String newAddress, String newPhone) throws UnloadedStorageException {
+        lock.writeLock().lock();
+        try {
+            Patient patient = findPatientByNric(nric);
+            if (patient == null) {
+                return null;
+            }
+            recordUndo(restorerOf(patient));
+            if (newName != null && !newName.isBlank()) {
+                patient.setName(newName);
+            }
+            if (newDob != null) {
+                patient.setDob(newDob);
+            }
+            if (newGender != null && !newGender.isBlank()) {
+                patient.setGender(newGender);
+                for (Appointment appointment : patient.getAppointments()) {
+                    indexAppointment(appointment, patient);
+                }
+            }
+            if (newAddress != null && !newAddress.isBlank()) {
+                patient.setAddress(newAddress);
+            }
+            if (newPhone != null && !newPhone.isBlank()) {
+                patient.setContactInfo(newPhone);
+            }
+            indexPatient(patient);
+            Storage.savePatients(patients);
+            return patient;
+        } finally {
+            unlockWrite();
         }
-        if (newName != null && !newName.isBlank()) {
-            patient.setName(newName);
+    }
+
+    public void storeMedicalHistory(String name, String nric, String medHistory) throws UnloadedStorageException{
+        lock.writeLock().lock();
+        try {
+            Patient existingPatient = findPatientByNric(nric);
+
+            if (existingPatient == null) {
+                throw new UnloadedStorageException("Patient with NRIC not found. Patient's history can not be added");
+            }
+
+            recordUndo(restorerOf(existingPatient));
+            String[] historyEntries = medHistory.split(",\\s*");
+            for (String entry : historyEntries) {
+                if (!existingPatient.getMedicalHistory().contains(entry.trim())) {
+                    existingPatient.getMedicalHistory().add(entry.trim());
+                }
+            }
+            existingPatient.touch();
+            Storage.savePatients(patients);
+        } finally {
+            unlockWrite();
         }
-        if (newDob != null && !newDob.isBlank()) {
-            patient.setDob(newDob);
+    }
+
+    public Patient viewMedicalHistoryByNric(String nric) {
+        lock.readLock().lock();
+        try {
+            return findPatientByNric(nric.trim());
+        } finally {
+            lock.readLock().unlock();
         }
-        if (newGender != null && !newGender.isBlank()) {
-            patient.setGender(newGender);
+    }
+
+    public List<Patient> viewMedicalHistoryByName(String name) {
+        lock.readLock().lock();
+        try {
+            return findPatientsByName(name.trim());
+        } finally {
+            lock.readLock().unlock();
         }
-        if (newAddress != null && !newAddress.isBlank()) {
-            patient.setAddress(newAddress);
+    }
+
+    //@@author Basudeb2005
+    public List<Patient> viewMedicalHistoryBySound(String name) {
+        return findPatientsBySound(name);
+    }
+
+    //@@author jyukuan
+    /**
+     * Replaces the first history entry equal to {@code oldHistory}, ignoring case, and returns whether one was
+     * found. Returns false as well if there is no patient with the NRIC.
+     */
+    public boolean editPatientHistory(String nric, String oldHistory, String newHistory)
+            throws UnloadedStorageException {
+        lock.writeLock().lock();
+        try {
+            Patient patient = findPatientByNric(nric);
+            if (patient == null) {
+                return false;
+            }
+            recordUndo(restorerOf(patient));
+            List<String> histories = patient.getMedicalHistory();
+            boolean foundOld = false;
+            for (int i = 0; i < histories.size(); i++) {
+                if (histories.get(i).equalsIgnoreCase(oldHistory.trim())) {
+                    histories.set(i, newHistory.trim());
+                    patient.touch();
+                    foundOld = true;
+                    break;
+                }
+            }
+            Storage.savePatients(patients);
+            return foundOld;
+        } finally {
+            unlockWrite();
         }
-        if (newPhone != null && !newPhone.isBlank()) {
-            patient.setContactInfo(newPhone);
+    }
+
+    //@@author Basudeb2005
+    public List<Patient> findPatientsByFuzzyName(String name) {
+        assert name != null : "Name cannot be null";
+
+        lock.readLock().lock();
+        try {
+            return patientNameIndex.search(name);
+        } finally {
+            lock.readLock().unlock();
         }
-        Storage.savePatients(patients);
-        System.out.println("Patient with NRIC " + nric + " updated successfully.");
     }
 
-    public void storeMedicalHistory(String name, String nric, String medHistory) throws UnloadedStorageException{
-        Patient existingPatient = findPatientByNric(nric);
+    public List<Patient> findPatientsBySound(String name) {
+        assert name != null : "Name cannot be null";
 
-        if (existingPatient == null) {
-            throw new UnloadedStorageException("Patient with NRIC not found. Patient's history can not be added");
-        } else {
-            Ui.showLine();
+        lock.readLock().lock();
+        try {
+            return patientSoundIndex.search(name);
+        } finally {
+            lock.readLock().unlock();
         }
+    }
+
+    public List<Patient> findPatients(PatientFilter filter, LocalDate today) {
+        List<Patient> result = new ArrayList<>();
+        forEachPatient(filter, today, result::add);
+        return result;
+    }
 
-        String[] historyEntries = medHistory.split(",\\s*");
-        for (String entry : historyEntries) {
-            if (!existingPatient.getMedicalHistory().contains(entry.trim())) {
-                existingPatient.getMedicalHistory().add(entry.trim());
+    /**
+     * Passes the patients matching the filter to the action one at a time, and returns how many were passed.
+     * The most selective index available drives the scan: the NRIC, then the date of birth range, then the
+     * gender bitmap. Only the remaining criteria are checked per patient, and the scan stops once the
+     * limit is reached.
+     */
+    public int forEachPatient(PatientFilter filter, LocalDate today, Consumer<Patient> action) {
+        assert filter != null : "Filter cannot be null";
+
+        if (!filter.hasCriteria()) {
+            return deliver(snapshot().getPatients().stream(), filter.getOffset(), filter.getLimit(), action);
+        }
+
+        List<Patient> page;
+        lock.readLock().lock();
+        try {
+            Bitmap genderRows = filter.getGender() == null ? null : patientBitmaps.get(genderKey(filter.getGender()));
+            Stream<Patient> candidates;
+            if (filter.getNric() != null) {
+                Patient patient = findPatientByNric(filter.getNric());
+                candidates = patient == null ? Stream.empty() : Stream.of(patient);
+            } else if (filter.hasDobRange()) {
+                candidates = patientDobIndex.streamRange(filter.getEarliestDob(today), filter.getLatestDob(today));
+            } else {
+                candidates = patientBitmaps.stream(genderRows);
             }
+
+            page = candidates
+                    .filter(patient -> filter.matches(patient, today))
+                    .filter(patient -> genderRows == null || patientBitmaps.contains(genderRows, patient))
+                    .skip(filter.getOffset())
+                    .limit(filter.getLimit())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
         }
-        Storage.savePatients(patients);
-        System.out.println("Medical history added for " + name + " (NRIC: " + nric + ").");
-        Ui.showLine();
+        return deliver(page.stream(), 0, page.size(), action);
+    }
+
+    public List<Appointment> findAppointments(AppointmentFilter filter) {
+        List<Appointment> result = new ArrayList<>();
+        forEachAppointment(filter, result::add);
+        return result;
     }
 
-    public void viewMedicalHistoryByNric(String nric) {
-        Patient foundPatients = findPatientByNric(nric.trim());
+    /**
+     * Passes the appointments matching the filter to the action one at a time, and returns how many were
+     * passed. The patient's own appointments are scanned when an NRIC is given, otherwise the time index
+     * for a date range, otherwise the intersection of the status, month and gender bitmaps.
+     * With no criteria at all the appointments come from the snapshot, in the order set by sort-appointment.
+     */
+    public int forEachAppointment(AppointmentFilter filter, Consumer<Appointment> action) {
+        assert filter != null : "Filter cannot be null";
 
-        if (foundPatients == null) {
-            Ui.showLine();
-            System.out.println("No patient/patients found with NRIC " + nric + ".");
+        if (!filter.hasCriteria()) {
+            return deliver(snapshot().getAppointments().stream(), filter.getOffset(), filter.getLimit(), action);
+        }
+
+        List<Appointment> page;
+        lock.readLock().lock();
+        try {
+            page = matchAppointments(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return deliver(page.stream(), 0, page.size(), action);
+    }
+
+    // Collects the page of appointments matching the filter. The caller holds the read or write lock.
+    private List<Appointment> matchAppointments(AppointmentFilter filter) {
+        Bitmap attributeRows = null;
+        if (filter.hasAttributeCriteria()) {
+            attributeRows = appointmentBitmaps.all();
+            if (filter.getIsDone() != null) {
+                attributeRows = attributeRows.and(appointmentBitmaps.get(doneKey(filter.getIsDone())));
+            }
+            if (filter.getMonth() != null) {
+                attributeRows = attributeRows.and(appointmentBitmaps.get("month:" + filter.getMonth()));
+            }
+            if (filter.getGender() != null) {
+                attributeRows = attributeRows.and(appointmentBitmaps.get(genderKey(filter.getGender())));
+            }
+        }
+
+        Stream<Appointment> candidates;
+        if (filter.getNric() != null) {
+            Patient patient = findPatientByNric(filter.getNric());
+            candidates = patient == null ? Stream.empty() : patient.getAppointments().stream();
+        } else if (filter.hasDateRange()) {
+            candidates = appointmentTimeIndex.streamRange(filter.getFromDateTime(), filter.getToDateTime());
+        } else if (attributeRows != null) {
+            candidates = appointmentBitmaps.stream(attributeRows);
         } else {
-            Ui.showLine();
-            Ui.showPatientHistory(foundPatients);
+            candidates = appointments.stream();
+        }
+
+        Bitmap requiredRows = attributeRows;
+        return candidates
+                .filter(filter::matches)
+                .filter(appointment -> requiredRows == null
+                        || appointmentBitmaps.contains(requiredRows, appointment))
+                .skip(filter.getOffset())
+                .limit(filter.getLimit())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the lists of records at the latest version; see {@link Snapshot} for what it does and does not
+     * fix at that version. The snapshot is built at most once per version, by the first reader after a write,
+     * which copies every list once; every other reader gets the published one without taking the lock.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = published;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = published;
+            if (current == null || current.getVersion() != version) {
+                current = new Snapshot(version, patients, appointments, prescriptions);
+                published = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
-    public void viewMedicalHistoryByName(String name) {
-        List<Patient> foundPatients = findPatientsByName(name.trim());
+    // Only the requested page is collected under the lock; the action itself runs without holding it
+    private static <T> int deliver(Stream<T> items, int offset, int limit, Consumer<T> action) {
+        Iterator<T> matches = items.skip(offset).limit(limit).iterator();
+        int count = 0;
+        while (matches.hasNext()) {
+            action.accept(matches.next());
+            count++;
+        }
+        return count;
+    }
 
-        Ui.showLine();
+    private void unlockWrite() {
+        version++;
+        lock.writeLock().unlock();
+    }
 
-        if (foundPatients.isEmpty()) {
-            System.out.println("No patients found with name '" + name + "'.");
-            Ui.showLine();
-        } else {
-            System.out.println("Found " + foundPatients.size() + " patient(s) with name '" + name + "'");
-            for (Patient p : foundPatients) {
-                Ui.showPatientHistory(p);
+    // The NRIC index answers directly while it holds exactly one entry per patient. Patients added to the list
+    // directly, or NRICs that differ only in case, make the sizes differ and fall back to the exact scan.
+    private boolean isRegistered(String nric) {
+        if (patientsByNric.size() == patients.size()) {
+            Patient indexedPatient = patientsByNric.get(nric.trim().toUpperCase());
+            return indexedPatient != null && indexedPatient.getId().equals(nric);
+        }
+        for (Patient existingPatient : patients) {
+            assert existingPatient != null : "Existing patient in list cannot be null";
+            if (existingPatient.getId().equals(nric)) {
+                return true;
             }
         }
+        return false;
     }
 
-    public void editPatientHistory(String nric, String oldHistory, String newHistory) throws UnloadedStorageException {
-        Patient patient = findPatientByNric(nric);
-        if (patient == null) {
-            System.out.println("Patient with NRIC " + nric + " not found.");
-            return;
+    private void indexPatient(Patient patient) {
+        patientNameIndex.put(patient, patient.getName());
+        patientSoundIndex.put(patient, patient.getName());
+        patientDobIndex.put(patient, patient.getDob());
+        patientBitmaps.put(patient, List.of(genderKey(patient.getGender())));
+        patientsByNric.put(patient.getId().trim().toUpperCase(), patient);
+    }
+
+    private void unindexPatient(Patient patient) {
+        patientNameIndex.remove(patient);
+        patientSoundIndex.remove(patient);
+        patientDobIndex.remove(patient);
+        patientBitmaps.remove(patient);
+        patientsByNric.remove(patient.getId().trim().toUpperCase());
+    }
+
+    // Gender and status of the patient are copied onto each appointment so filters never need a join
+    private void indexAppointment(Appointment appointment, Patient patient) {
+        String gender = patient == null ? "gender:unknown" : genderKey(patient.getGender());
+        appointmentBitmaps.put(appointment, List.of(doneKey(appointment.isDone()),
+                "month:" + YearMonth.from(appointment.getDateTime()), gender));
+        appointmentTimeIndex.put(appointment, appointment.getDateTime());
+        addToDay(appointment);
+        for (Resource kind : Resource.values()) {
+            String name = appointment.getResource(kind);
+            if (name != null) {
+                schedules.get(kind).computeIfAbsent(resourceKey(name), key -> new ResourceSchedule()).add(appointment);
+            }
         }
-        List<String> histories = patient.getMedicalHistory();
-        boolean foundOld = false;
-        for (int i = 0; i < histories.size(); i++) {
-            if (histories.get(i).equalsIgnoreCase(oldHistory.trim())) {
-                histories.set(i, newHistory.trim());
-                foundOld = true;
-                System.out.println("Replaced old history \"" + oldHistory + "\" with \"" + newHistory + "\".");
-                break;
+        if (reminders != null) {
+            reminders.update(appointment);
+        }
+    }
+
+    private void unindexAppointment(Appointment appointment) {
+        appointmentBitmaps.remove(appointment);
+        appointmentTimeIndex.remove(appointment);
+        removeFromDay(appointment);
+        if (reminders != null) {
+            reminders.cancel(appointment);
+        }
+        for (Resource kind : Resource.values()) {
+            ResourceSchedule schedule = scheduleOf(kind, appointment.getResource(kind));
+            if (schedule != null) {
+                schedule.remove(appointment);
             }
         }
-        Storage.savePatients(patients);
-        if (!foundOld) {
-            System.out.println("Old history \"" + oldHistory + "\" not found for patient " + patient.getName());
+    }
+
+    private ResourceSchedule scheduleOf(Resource kind, String name) {
+        return name == null ? null : schedules.get(kind).get(resourceKey(name));
+    }
+
+    private static String resourceKey(String name) {
+        return name.trim().toUpperCase();
+    }
+
+    private static String doneKey(boolean isDone) {
+        return "done:" + isDone;
+    }
+
+    private static String genderKey(String gender) {
+        String normalized = gender.trim().toLowerCase();
+        if (normalized.equals("m") || normalized.equals("male")) {
+            return "gender:m";
+        } else if (normalized.equals("f") || normalized.equals("female")) {
+            return "gender:f";
         }
+        return "gender:" + normalized;
     }
 
+    //@@author jyukuan
     private Patient findPatientByNric(String nric) {
         String object = nric.trim().toUpperCase();
+        Patient indexedPatient = patientsByNric.get(object);
+        if (indexedPatient != null) {
+            return indexedPatient;
+        }
+        // Fall back to a scan for patients added to the list directly rather than through addPatient
         for (Patient p : patients) {
             String patientId = p.getId().trim().toUpperCase();
             if (patientId.equals(object)) {
@@ -203,138 +609,885 @@ public class ManagementSystem {
     public void addAppointment(Appointment appointment) throws IllegalArgumentException, UnloadedStorageException {
         assert appointment != null : "Appointment cannot be null";
         assert patients != null : "Patient list cannot be null";
-        
-        Patient patient = findPatientByNric(appointment.getNric());
-        if (patient == null) {
-            throw new IllegalArgumentException("Patient with NRIC: " + appointment.getNric() + " not found");
-        }
 
-        appointments.add(appointment);
-        patient.addAppointment(appointment);
-        Storage.saveAppointments(appointments);
+        lock.writeLock().lock();
+        try {
+            Patient patient = findPatientByNric(appointment.getNric());
+            if (patient == null) {
+                throw new IllegalArgumentException("Patient with NRIC: " + appointment.getNric() + " not found");
+            }
+            requireFreeTime(appointment);
+
+            appointments.add(appointment);
+            patient.addAppointment(appointment);
+            indexAppointment(appointment, patient);
+            recordUndo(() -> {
+                appointments.remove(appointment);
+                patient.deleteAppointment(appointment.getId());
+                unindexAppointment(appointment);
+            });
+            Storage.saveAppointments(appointments);
+        } finally {
+            unlockWrite();
+        }
     }
 
     public Appointment deleteAppointment(String apptId) throws UnloadedStorageException {
         assert apptId != null && !apptId.isBlank() : "Appointment ID cannot be null or blank";
         assert appointments != null : "Appointment list cannot be null";
-        
-        for (Appointment appointment : appointments) {
-            if (appointment.getId().equalsIgnoreCase(apptId)) {
-                appointments.remove(appointment);
-                Patient patient = findPatientByNric(appointment.getNric());
-                if (patient != null) {
-                    patient.deleteAppointment(apptId);
-                    Storage.saveAppointments(appointments);
+
+        lock.writeLock().lock();
+        try {
+            for (Appointment appointment : appointments) {
+                if (appointment.getId().equalsIgnoreCase(apptId)) {
+                    int position = appointments.indexOf(appointment);
+                    appointments.remove(appointment);
+                    unindexAppointment(appointment);
+                    Patient patient = findPatientByNric(appointment.getNric());
+                    recordUndo(() -> {
+                        appointments.add(position, appointment);
+                        if (patient != null) {
+                            patient.addAppointment(appointment);
+                        }
+                        indexAppointment(appointment, patient);
+                    });
+                    if (patient != null) {
+                        patient.deleteAppointment(apptId);
+                        Storage.saveAppointments(appointments);
+                    }
+                    return appointment;
                 }
-                return appointment;
             }
+            return null;
+        } finally {
+            unlockWrite();
         }
-        return null;
+    }
+
+    public List<Appointment> sortAppointmentsByDateTime() {
+        return sortAppointmentsByDateTime(appointments);
+    }
+
+    public List<Appointment> sortAppointmentsById() {
+        return sortAppointmentsById(appointments);
     }
 
     public List<Appointment> sortAppointmentsByDateTime(List<Appointment> appointments) {
-        appointments.sort(Comparator.comparing(Appointment::getDateTime));
-        return appointments;
+        lock.writeLock().lock();
+        try {
+            List<Appointment> previousOrder = List.copyOf(appointments);
+            recordUndo(() -> {
+                appointments.clear();
+                appointments.addAll(previousOrder);
+            });
+            appointments.sort(Comparator.comparing(Appointment::getDateTime));
+            return List.copyOf(appointments);
+        } finally {
+            unlockWrite();
+        }
     }
 
     public List<Appointment> sortAppointmentsById(List<Appointment> appointments) {
-        appointments.sort(Comparator.comparing(Appointment::getId));
-        return appointments;
+        lock.writeLock().lock();
+        try {
+            List<Appointment> previousOrder = List.copyOf(appointments);
+            recordUndo(() -> {
+                appointments.clear();
+                appointments.addAll(previousOrder);
+            });
+            appointments.sort(Comparator.comparing(Appointment::getId));
+            return List.copyOf(appointments);
+        } finally {
+            unlockWrite();
+        }
     }
 
     //@@author dylancmznus
     public Appointment markAppointment(String apptId) throws UnloadedStorageException {
-        for (Appointment appointment : appointments) {
-            if (appointment.getId().equalsIgnoreCase(apptId)) {
-                appointment.markAsDone();
-                Storage.saveAppointments(appointments);
-                return appointment;
+        lock.writeLock().lock();
+        try {
+            for (Appointment appointment : appointments) {
+                if (appointment.getId().equalsIgnoreCase(apptId)) {
+                    boolean wasDone = appointment.isDone();
+                    appointment.markAsDone();
+                    Patient patient = findPatientByNric(appointment.getNric());
+                    recordUndo(() -> {
+                        appointment.setIsDone(wasDone);
+                        indexAppointment(appointment, patient);
+                        if (patient != null) {
+                            patient.touch();
+                        }
+                    });
+                    indexAppointment(appointment, patient);
+                    if (patient != null) {
+                        patient.touch();
+                    }
+                    Storage.saveAppointments(appointments);
+                    return appointment;
+                }
             }
+            return null;
+        } finally {
+            unlockWrite();
         }
-        return null;
     }
 
     public Appointment unmarkAppointment(String apptId) throws UnloadedStorageException {
-        for (Appointment appointment : appointments) {
-            if (appointment.getId().equalsIgnoreCase(apptId)) {
-                appointment.unmarkAsDone();
-                Storage.saveAppointments(appointments);
-                return appointment;
+        lock.writeLock().lock();
+        try {
+            for (Appointment appointment : appointments) {
+                if (appointment.getId().equalsIgnoreCase(apptId)) {
+                    boolean wasDone = appointment.isDone();
+                    appointment.unmarkAsDone();
+                    Patient patient = findPatientByNric(appointment.getNric());
+                    recordUndo(() -> {
+                        appointment.setIsDone(wasDone);
+                        indexAppointment(appointment, patient);
+                        if (patient != null) {
+                            patient.touch();
+                        }
+                    });
+                    indexAppointment(appointment, patient);
+                    if (patient != null) {
+                        patient.touch();
+                    }
+                    Storage.saveAppointments(appointments);
+                    return appointment;
+                }
             }
+            return null;
+        } finally {
+            unlockWrite();
         }
-        return null;
     }
 
     public Appointment findAppointmentByNric(String nric) {
-        for (Appointment appt : appointments) {
-            if (appt.getNric().equals(nric)) {
-                return appt;
+        lock.readLock().lock();
+        try {
+            for (Appointment appt : appointments) {
+                if (appt.getNric().equals(nric)) {
+                    return appt;
+                }
             }
+            return null;
+        } finally {
+            lock.readLock().unlock();
         }
-        return null;
     }
 
     //@@author Basudeb2005
     public List<Prescription> getPrescriptions() {
-        return prescriptions;
+        return snapshot().getPrescriptions();
     }
     
     //@@author Basudeb2005
-    public void addPrescription(Prescription prescription) 
+    public Prescription addPrescription(Prescription prescription)
             throws IllegalArgumentException, UnloadedStorageException {
         assert prescription != null : "Prescription cannot be null";
         assert patients != null : "Patient list cannot be null";
-        
-        Patient patient = findPatientByNric(prescription.getPatientId());
-        if (patient == null) {
-            throw new IllegalArgumentException("Patient with NRIC: " + prescription.getPatientId() + " not found");
-        }
-
-        // Generate prescription ID with counter
-        int prescriptionCount = 1;
-        for (Prescription p : prescriptions) {
-            if (p.getPatientId().equals(prescription.getPatientId())) {
-                prescriptionCount++;
-            }
-        }
-        
-        String prescriptionId = prescription.getPatientId() + "-" + prescriptionCount;
-        
-        // Create a new prescription with updated ID
-        Prescription newPrescription = new Prescription(
-            prescription.getPatientId(),
-            prescriptionId,
-            prescription.getTimestamp(),
-            prescription.getSymptoms(),
-            prescription.getMedicines(),
-            prescription.getNotes()
-        );
-        
-        prescriptions.add(newPrescription);
-        Storage.savePrescriptions(prescriptions);
-        
-        return;
+
+        lock.writeLock().lock();
+        try {
+            Patient patient = findPatientByNric(prescription.getPatientId());
+            if (patient == null) {
+                throw new IllegalArgumentException("Patient with NRIC: " + prescription.getPatientId() + " not found");
+            }
+
+            // Create a new prescription with the next ID of the patient's sequence
+            Prescription newPrescription = new Prescription(
+                prescription.getPatientId(),
+                Prescription.nextId(prescription.getPatientId()),
+                prescription.getTimestamp(),
+                prescription.getSymptoms(),
+                prescription.getMedicines(),
+                prescription.getNotes()
+            );
+
+            prescriptions.add(newPrescription);
+            indexPrescription(newPrescription);
+            recordUndo(() -> {
+                prescriptions.remove(newPrescription);
+                prescriptionsByPatient.get(prescriptionKey(newPrescription.getPatientId())).remove(newPrescription);
+            });
+            Storage.savePrescriptions(prescriptions);
+
+            return newPrescription;
+        } finally {
+            unlockWrite();
+        }
     }
     
     //@@author Basudeb2005
     public List<Prescription> getPrescriptionsForPatient(String patientId) {
-        List<Prescription> patientPrescriptions = new ArrayList<>();
-        for (Prescription prescription : prescriptions) {
-            if (prescription.getPatientId().equals(patientId)) {
-                patientPrescriptions.add(prescription);
+        lock.readLock().lock();
+        try {
+            List<Prescription> patientPrescriptions = new ArrayList<>();
+            List<Prescription> indexed = prescriptionsByPatient.getOrDefault(prescriptionKey(patientId), List.of());
+            for (Prescription prescription : indexed) {
+                if (prescription.getPatientId().equals(patientId)) {
+                    patientPrescriptions.add(prescription);
+                }
             }
+            return patientPrescriptions;
+        } finally {
+            lock.readLock().unlock();
         }
-        return patientPrescriptions;
     }
     
     //@@author Basudeb2005
     public Prescription getPrescriptionById(String prescriptionId) {
-        for (Prescription prescription : prescriptions) {
-            if (prescription.getPrescriptionId().equals(prescriptionId)) {
-                return prescription;
+        lock.readLock().lock();
+        try {
+            for (Prescription prescription : prescriptions) {
+                if (prescription.getPrescriptionId().equals(prescriptionId)) {
+                    return prescription;
+                }
             }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //@@author Basudeb2005
+    /**
+     * Writes the lists whose saves {@link Storage} held back while deferring saves.
+     * Does nothing while a transaction is open.
+     */
+    public void flushPendingSaves() throws UnloadedStorageException {
+        lock.writeLock().lock();
+        try {
+            if (undoLog != null) {
+                // The open transaction is saved when it ends
+                return;
+            }
+            Storage.flushPendingSaves();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Counting does not need the snapshot, which would be copied again after every change
+    public int getAppointmentCount() {
+        lock.readLock().lock();
+        try {
+            return appointments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a transaction. Until it ends, changes are kept in memory only, and each one records how
+     * to undo it. There is one transaction at a time for the whole clinic, so it is refused once several
+     * sessions share the manager, where it would take in and undo the changes of the others.
+     */
+    public void beginTransaction() {
+        lock.writeLock().lock();
+        try {
+            if (isShared) {
+                throw new IllegalArgumentException("Transactions are not available while several front desks "
+                        + "share the clinic.");
+            }
+            if (undoLog != null) {
+                throw new IllegalArgumentException("A transaction is already open. Use commit or rollback first.");
+            }
+            undoLog = new ArrayDeque<>();
+            prescriptionsDeletedInTransaction = new ArrayList<>();
+            wasDeferringSaves = Storage.isDeferringSaves();
+            Storage.setDeferringSaves(true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the changes of the open transaction in one write per file. Deleting a patient already
+     * takes their appointments, series and prescriptions with it, so no change can leave them behind.
+     *
+     * @return the number of changes committed
+     */
+    public int commitTransaction() throws UnloadedStorageException {
+        lock.writeLock().lock();
+        try {
+            requireTransaction();
+            int changes = undoLog.size();
+            List<Prescription> deletedPrescriptions = prescriptionsDeletedInTransaction;
+            endTransaction();
+            if (!deletedPrescriptions.isEmpty()) {
+                Storage.deletePrescriptionHtml(deletedPrescriptions);
+            }
+            return changes;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Undoes every change of the open transaction, newest first.
+     *
+     * @return the number of changes undone
+     */
+    public int rollbackTransaction() throws UnloadedStorageException {
+        lock.writeLock().lock();
+        try {
+            requireTransaction();
+            int changes = undoLog.size();
+            undoAll();
+            endTransaction();
+            return changes;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    public boolean isInTransaction() {
+        lock.readLock().lock();
+        try {
+            return undoLog != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void requireTransaction() {
+        if (undoLog == null) {
+            throw new IllegalArgumentException("No transaction is open. Use begin first.");
+        }
+    }
+
+    private void recordUndo(Runnable undo) {
+        if (undoLog != null) {
+            undoLog.push(undo);
+        }
+    }
+
+    private void undoAll() {
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().run();
+        }
+    }
+
+    private void endTransaction() throws UnloadedStorageException {
+        undoLog = null;
+        prescriptionsDeletedInTransaction = null;
+        try {
+            if (!wasDeferringSaves) {
+                Storage.flushPendingSaves();
+            }
+        } finally {
+            Storage.setDeferringSaves(wasDeferringSaves);
         }
-        return null;
     }
 
+    // Puts back the details and history the patient has now, for undoing an edit
+    private Runnable restorerOf(Patient patient) {
+        String name = patient.getName();
+        LocalDate dob = patient.getDob();
+        String gender = patient.getGender();
+        String address = patient.getAddress();
+        String contactInfo = patient.getContactInfo();
+        List<String> medicalHistory = List.copyOf(patient.getMedicalHistory());
+        return () -> {
+            patient.setName(name);
+            patient.setDob(dob);
+            patient.setGender(gender);
+            patient.setAddress(address);
+            patient.setContactInfo(contactInfo);
+            patient.getMedicalHistory().clear();
+            patient.getMedicalHistory().addAll(medicalHistory);
+            patient.touch();
+            indexPatient(patient);
+            for (Appointment appointment : patient.getAppointments()) {
+                indexAppointment(appointment, patient);
+            }
+        };
+    }
+
+    /**
+     * Marks every appointment matching the filter as done or not done, and saves the appointments once.
+     *
+     * @return the appointments whose status changed
+     */
+    public List<Appointment> markAppointments(AppointmentFilter filter, boolean isDone)
+            throws UnloadedStorageException {
+        assert filter != null : "Filter cannot be null";
+
+        lock.writeLock().lock();
+        try {
+            List<Appointment> changed = new ArrayList<>();
+            for (Appointment appointment : matchAppointments(filter)) {
+                if (appointment.isDone() != isDone) {
+                    setStatus(appointment, isDone);
+                    changed.add(appointment);
+                }
+            }
+            if (!changed.isEmpty()) {
+                recordUndo(() -> changed.forEach(appointment -> setStatus(appointment, !isDone)));
+                Storage.saveAppointments(appointments);
+            }
+            return changed;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /**
+     * Deletes every appointment matching the filter in one pass over the lists, and saves the appointments once.
+     *
+     * @return the deleted appointments
+     */
+    public List<Appointment> deleteAppointments(AppointmentFilter filter) throws UnloadedStorageException {
+        assert filter != null : "Filter cannot be null";
+
+        lock.writeLock().lock();
+        try {
+            List<Appointment> deleted = matchAppointments(filter);
+            if (deleted.isEmpty()) {
+                return deleted;
+            }
+            Set<Appointment> doomed = new HashSet<>(deleted);
+            List<Appointment> previousOrder = List.copyOf(appointments);
+            Map<Patient, List<Appointment>> previousByPatient = new HashMap<>();
+            appointments.removeIf(doomed::contains);
+            for (Appointment appointment : deleted) {
+                unindexAppointment(appointment);
+                Patient patient = findPatientByNric(appointment.getNric());
+                if (patient != null && !previousByPatient.containsKey(patient)) {
+                    previousByPatient.put(patient, List.copyOf(patient.getAppointments()));
+                    patient.getAppointments().removeIf(doomed::contains);
+                    patient.touch();
+                }
+            }
+            recordUndo(() -> {
+                appointments.clear();
+                appointments.addAll(previousOrder);
+                previousByPatient.forEach((patient, previous) -> {
+                    patient.getAppointments().clear();
+                    patient.getAppointments().addAll(previous);
+                    patient.touch();
+                });
+                for (Appointment appointment : deleted) {
+                    indexAppointment(appointment, findPatientByNric(appointment.getNric()));
+                }
+            });
+            Storage.saveAppointments(appointments);
+            return deleted;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    private void setStatus(Appointment appointment, boolean isDone) {
+        appointment.setIsDone(isDone);
+        Patient patient = findPatientByNric(appointment.getNric());
+        indexAppointment(appointment, patient);
+        if (patient != null) {
+            patient.touch();
+        }
+    }
+
+    /**
+     * Takes the patient's appointments out of the appointment list and indexes in one pass,
+     * leaving the patient's own list as it is so the patient can be put back whole.
+     *
+     * @return how to put the appointments back
+     */
+    private Runnable removeAppointmentsOf(Patient patient) {
+        List<Appointment> removed = List.copyOf(patient.getAppointments());
+        if (removed.isEmpty()) {
+            return () -> { };
+        }
+        Set<Appointment> doomed = new HashSet<>(removed);
+        List<Appointment> previousOrder = List.copyOf(appointments);
+        appointments.removeIf(doomed::contains);
+        removed.forEach(this::unindexAppointment);
+        return () -> {
+            appointments.clear();
+            appointments.addAll(previousOrder);
+            removed.forEach(appointment -> indexAppointment(appointment, patient));
+        };
+    }
+
+    private Runnable removePrescriptionsOf(Patient patient) {
+        String key = prescriptionKey(patient.getId());
+        List<Prescription> removed = prescriptionsByPatient.remove(key);
+        if (removed == null) {
+            return () -> { };
+        }
+        Set<Prescription> doomed = new HashSet<>(removed);
+        List<Prescription> previousOrder = List.copyOf(prescriptions);
+        prescriptions.removeIf(doomed::contains);
+        return () -> {
+            prescriptions.clear();
+            prescriptions.addAll(previousOrder);
+            prescriptionsByPatient.put(key, removed);
+        };
+    }
+
+    private void indexPrescription(Prescription prescription) {
+        prescriptionsByPatient.computeIfAbsent(prescriptionKey(prescription.getPatientId()), key -> new ArrayList<>())
+                .add(prescription);
+    }
+
+    private static String prescriptionKey(String patientId) {
+        return patientId.trim().toUpperCase();
+    }
+
+    /**
+     * Finds every pair of appointments that overlap and share a patient, doctor or room, in one sweep over
+     * the appointments in order of start time. Each resource keeps the appointments still running at the
+     * current start, ordered by end, so the ones that have ended are dropped as the sweep moves on.
+     *
+     * @return the overlapping pairs, ordered by the start of the later appointment
+     */
+    public List<AppointmentConflict> findConflicts() {
+        lock.readLock().lock();
+        try {
+            List<AppointmentConflict> conflicts = new ArrayList<>();
+            Map<Resource, Map<String, PriorityQueue<Appointment>>> running = new EnumMap<>(Resource.class);
+            Iterator<Appointment> byStart = appointmentTimeIndex
+                    .streamRange(LocalDateTime.MIN, LocalDateTime.MAX).iterator();
+            while (byStart.hasNext()) {
+                Appointment appointment = byStart.next();
+                for (Resource kind : Resource.values()) {
+                    String name = appointment.getResource(kind);
+                    if (name == null) {
+                        continue;
+                    }
+                    PriorityQueue<Appointment> runningNow = running.computeIfAbsent(kind, k -> new HashMap<>())
+                            .computeIfAbsent(resourceKey(name),
+                                    k -> new PriorityQueue<>(Comparator.comparing(Appointment::getEndDateTime)));
+                    while (!runningNow.isEmpty()
+                            && !runningNow.peek().getEndDateTime().isAfter(appointment.getDateTime())) {
+                        runningNow.poll();
+                    }
+                    for (Appointment overlapping : runningNow) {
+                        conflicts.add(new AppointmentConflict(overlapping, appointment, kind.describe(name)));
+                    }
+                    runningNow.add(appointment);
+                }
+            }
+            conflicts.sort(Comparator.comparing((AppointmentConflict conflict) -> conflict.getSecond().getDateTime())
+                    .thenComparing(conflict -> conflict.getFirst().getDateTime()));
+            return conflicts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the earliest times, within clinic hours, when the patient and any requested doctor and room
+     * are all free for the requested length. Each day is checked with a few operations on the slot maps
+     * of the three, and the search ends a year ahead.
+     *
+     * @return up to the requested number of start times, each after the end of the one before
+     */
+    public List<LocalDateTime> findFreeSlots(SlotRequest request) {
+        lock.readLock().lock();
+        try {
+            if (findPatientByNric(request.getNric()) == null) {
+                throw new IllegalArgumentException("Patient with NRIC: " + request.getNric() + " not found");
+            }
+            LocalDate horizon = request.getEarliest().toLocalDate().plusDays(SLOT_SEARCH_DAYS);
+            List<SlotCalendar> calendars = new ArrayList<>();
+            for (Resource kind : Resource.values()) {
+                ResourceSchedule schedule = scheduleOf(kind, request.getResource(kind));
+                if (schedule != null) {
+                    calendars.addAll(schedule.slotsBetween(request.getEarliest().toLocalDate().atStartOfDay(),
+                            horizon.atStartOfDay()));
+                }
+            }
+            List<LocalDateTime> found = new ArrayList<>();
+            LocalDateTime earliest = request.getEarliest();
+            while (found.size() < request.getCount()) {
+                int days = (int) ChronoUnit.DAYS.between(earliest.toLocalDate(), horizon);
+                LocalDateTime start = SlotCalendar.findFree(calendars, earliest, request.getDuration(),
+                        SlotRequest.CLINIC_OPENS, SlotRequest.CLINIC_CLOSES, days);
+                if (start == null) {
+                    break;
+                }
+                found.add(start);
+                earliest = start.plus(request.getDuration());
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the appointments of a patient, doctor or room from the start of {@code from} to the end of
+     * {@code to}, in order of start, read from that resource's own schedule.
+     */
+    public List<Appointment> getBookings(Resource kind, String name, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            ResourceSchedule schedule = scheduleOf(kind, name);
+            if (schedule == null) {
+                return new ArrayList<>();
+            }
+            return schedule.between(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns how much of the clinic hours from {@code from} to {@code to} the patient, doctor or room
+     * is booked for. Overlapping appointments count once.
+     */
+    public Duration getBookedTime(Resource kind, String name, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            ResourceSchedule schedule = scheduleOf(kind, name);
+            Duration booked = Duration.ZERO;
+            if (schedule == null) {
+                return booked;
+            }
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                booked = booked.plus(schedule.bookedTime(day.atTime(SlotRequest.CLINIC_OPENS),
+                        day.atTime(SlotRequest.CLINIC_CLOSES)));
+            }
+            return booked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rejects an appointment that overlaps one its patient, doctor or room already has
+    private void requireFreeTime(Appointment appointment) {
+        for (Resource kind : Resource.values()) {
+            String name = appointment.getResource(kind);
+            ResourceSchedule schedule = scheduleOf(kind, name);
+            if (schedule == null) {
+                continue;
+            }
+            Appointment clash = schedule.findOverlapping(appointment.getDateTime(), appointment.getEndDateTime());
+            if (clash != null) {
+                throw new IllegalArgumentException("The " + kind.describe(name) + " already has appointment "
+                        + clash.getId() + " from " + clash.getDateTime().format(Appointment.OUTPUT_FORMAT)
+                        + " to " + clash.getEndDateTime().format(Appointment.OUTPUT_FORMAT));
+            }
+        }
+    }
+
+    /**
+     * Books a recurring appointment, stored as its one rule. Every occurrence must fall on time that the
+     * patient, doctor and room have free, counting the occurrences of their other series.
+     */
+    public void addRecurringAppointment(RecurringAppointment series) throws UnloadedStorageException {
+        assert series != null : "Recurring appointment cannot be null";
+
+        lock.writeLock().lock();
+        try {
+            if (findPatientByNric(series.getNric()) == null) {
+                throw new IllegalArgumentException("Patient with NRIC: " + series.getNric() + " not found");
+            }
+            LocalDateTime end = series.getLastStart().plus(series.getDuration());
+            for (Appointment occurrence : series.occurrencesBetween(series.getStart(), end)) {
+                requireFreeTime(occurrence);
+            }
+            recurringAppointments.add(series);
+            indexSeries(series);
+            recordUndo(() -> {
+                recurringAppointments.remove(series);
+                unindexSeries(series);
+            });
+            Storage.saveRecurringAppointments(recurringAppointments);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    public RecurringAppointment deleteRecurringAppointment(String seriesId) throws UnloadedStorageException {
+        assert seriesId != null && !seriesId.isBlank() : "Recurring appointment ID cannot be null or blank";
+
+        lock.writeLock().lock();
+        try {
+            for (RecurringAppointment series : recurringAppointments) {
+                if (series.getId().equalsIgnoreCase(seriesId.trim())) {
+                    int position = recurringAppointments.indexOf(series);
+                    recurringAppointments.remove(series);
+                    unindexSeries(series);
+                    recordUndo(() -> {
+                        recurringAppointments.add(position, series);
+                        indexSeries(series);
+                    });
+                    Storage.saveRecurringAppointments(recurringAppointments);
+                    return series;
+                }
+            }
+            return null;
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    public List<RecurringAppointment> getRecurringAppointments() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(recurringAppointments);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the occurrences in the filter's date range of every series, or of the patient's series if
+     * the filter has an NRIC, in order of start. Only the occurrences in the range are made.
+     */
+    public List<Appointment> getRecurringOccurrences(AppointmentFilter filter) {
+        assert filter != null && filter.hasDateRange() : "Occurrences can only be listed for a date range";
+
+        lock.readLock().lock();
+        try {
+            List<Appointment> found = new ArrayList<>();
+            String nric = filter.getNric();
+            for (RecurringAppointment series : recurringAppointments) {
+                if (nric == null || resourceKey(series.getNric()).equals(resourceKey(nric))) {
+                    found.addAll(series.occurrencesBetween(filter.getFromDateTime(), filter.getToDateTime()));
+                }
+            }
+            found.sort(Comparator.comparing(Appointment::getDateTime));
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexSeries(RecurringAppointment series) {
+        for (Resource kind : Resource.values()) {
+            String name = series.getResource(kind);
+            if (name != null) {
+                schedules.get(kind).computeIfAbsent(resourceKey(name), key -> new ResourceSchedule()).addSeries(series);
+            }
+        }
+        if (reminders != null) {
+            reminders.updateSeries(series);
+        }
+    }
+
+    private void unindexSeries(RecurringAppointment series) {
+        for (Resource kind : Resource.values()) {
+            ResourceSchedule schedule = scheduleOf(kind, series.getResource(kind));
+            if (schedule != null) {
+                schedule.removeSeries(series);
+            }
+        }
+        if (reminders != null) {
+            reminders.cancelSeries(series);
+        }
+    }
+
+    private static boolean isSeriesOf(RecurringAppointment series, Patient patient) {
+        return resourceKey(series.getNric()).equals(resourceKey(patient.getId()));
+    }
+
+    private Runnable removeSeriesOf(Patient patient) {
+        List<RecurringAppointment> previousOrder = List.copyOf(recurringAppointments);
+        List<RecurringAppointment> removed = previousOrder.stream()
+                .filter(series -> isSeriesOf(series, patient))
+                .collect(Collectors.toList());
+        if (removed.isEmpty()) {
+            return () -> { };
+        }
+        recurringAppointments.removeAll(removed);
+        removed.forEach(this::unindexSeries);
+        return () -> {
+            recurringAppointments.clear();
+            recurringAppointments.addAll(previousOrder);
+            removed.forEach(this::indexSeries);
+        };
+    }
+
+    /**
+     * Hands every appointment and recurring appointment to the scheduler, which from then on hears of each
+     * one that is added, deleted, marked or unmarked, including by undo. Reminders that fell due before the
+     * scheduler started are not sent.
+     */
+    public void setReminderScheduler(ReminderScheduler scheduler) {
+        lock.writeLock().lock();
+        try {
+            reminders = scheduler;
+            if (scheduler != null) {
+                appointments.forEach(scheduler::restore);
+                recurringAppointments.forEach(scheduler::restoreSeries);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns what is on the day: its appointments, kept in order of start as they change, together with
+     * the visits of recurring appointments on the day.
+     */
+    public List<Appointment> getAppointmentsOn(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            List<Appointment> day = appointmentsByDay.getOrDefault(date, List.of());
+            List<Appointment> visits = new ArrayList<>();
+            LocalDateTime start = date.atStartOfDay();
+            LocalDateTime end = date.plusDays(1).atStartOfDay();
+            for (RecurringAppointment series : recurringAppointments) {
+                for (Appointment visit : series.occurrencesBetween(start, end)) {
+                    if (visit.getDate().equals(date)) {
+                        visits.add(visit);
+                    }
+                }
+            }
+            if (visits.isEmpty()) {
+                return List.copyOf(day);
+            }
+            List<Appointment> merged = new ArrayList<>(day);
+            merged.addAll(visits);
+            merged.sort(Comparator.comparing(Appointment::getDateTime));
+            return merged;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appointments are indexed again when they change, so one already in its day is left where it is
+    private void addToDay(Appointment appointment) {
+        List<Appointment> day = appointmentsByDay.computeIfAbsent(appointment.getDate(), date -> new ArrayList<>());
+        if (day.contains(appointment)) {
+            return;
+        }
+        int low = 0;
+        int high = day.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (day.get(middle).getDateTime().isAfter(appointment.getDateTime())) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        day.add(low, appointment);
+    }
+
+    private void removeFromDay(Appointment appointment) {
+        List<Appointment> day = appointmentsByDay.get(appointment.getDate());
+        if (day != null && day.remove(appointment) && day.isEmpty()) {
+            appointmentsByDay.remove(appointment.getDate());
+        }
+    }
+
+    /**
+     * Marks the manager as shared by several writing sessions, such as those of a command server.
+     * Transactions cannot be begun from then on.
+     */
+    public void setShared(boolean isShared) {
+        lock.writeLock().lock();
+        try {
+            if (isShared && undoLog != null) {
+                throw new IllegalArgumentException("Commit or roll back the open transaction before sharing.");
+            }
+            this.isShared = isShared;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 }
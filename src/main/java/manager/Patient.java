@@ -1,21 +1,31 @@
 package manager;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Patient {
 
     private String id;
     private String name;
-    private String dob;
+    private LocalDate dob;
     private String contactInfo;
     private String gender;
     private String address;
+    // Copy-on-write, so listings render them from a snapshot while a writer changes them
     private final List<String> medicalHistory;
     private final List<Appointment> appointments;
+    private volatile long version;
+    private volatile RenderedText renderedView;
+    private volatile RenderedText renderedListView;
 
     public Patient(String id, String name, String dob, String gender, String address,
                    String contactInfo, List<String> medicalHistory) {
+        this(id, name, LocalDate.parse(dob), gender, address, contactInfo, medicalHistory);
+    }
+
+    public Patient(String id, String name, LocalDate dob, String gender, String address,
+                   String contactInfo, List<String> medicalHistory) {
         assert id != null && !id.isBlank() : "Patient ID cannot be null or blank";
         assert name != null && !name.isBlank() : "Patient name cannot be null or blank";
         assert dob != null : "Date of birth cannot be null";
@@ -30,8 +40,8 @@ public class Patient {
         this.gender = gender;
         this.address = address;
         this.contactInfo = contactInfo;
-        this.medicalHistory = new ArrayList<>(medicalHistory);
-        this.appointments = new ArrayList<>();
+        this.medicalHistory = new CopyOnWriteArrayList<>(medicalHistory);
+        this.appointments = new CopyOnWriteArrayList<>();
     }
 
     public String getId() {
@@ -42,7 +52,7 @@ public class Patient {
         return name;
     }
 
-    public String getDob() {
+    public LocalDate getDob() {
         return dob;
     }
 
@@ -64,22 +74,27 @@ public class Patient {
 
     public void setName(String name) {
         this.name = name;
+        touch();
     }
 
-    public void setDob(String dob) {
+    public void setDob(LocalDate dob) {
         this.dob = dob;
+        touch();
     }
 
     public void setContactInfo(String contactInfo) {
         this.contactInfo = contactInfo;
+        touch();
     }
 
     public void setGender(String gender) {
         this.gender = gender;
+        touch();
     }
 
     public void setAddress(String address) {
         this.address = address;
+        touch();
     }
 
     public List<Appointment> getAppointments() {
@@ -90,6 +105,7 @@ public class Patient {
         assert appointment != null : "Appointment cannot be null";
         assert appointment.getNric().equals(this.id) : "Appointment NRIC must match patient ID";
         appointments.add(appointment);
+        touch();
     }
 
     public void deleteAppointment(String apptId) {
@@ -97,6 +113,7 @@ public class Patient {
         for (Appointment appt : appointments) {
             if (appt.getId().equals(apptId)) {
                 appointments.remove(appt);
+                touch();
                 break;
             }
         }
@@ -104,76 +121,47 @@ public class Patient {
 
     @Override
     public String toString() {
-        String formattedMedicalHistory;
-        if (medicalHistory.isEmpty()) {
-            formattedMedicalHistory = "None";
-        } else {
-            formattedMedicalHistory = String.join(", ", medicalHistory);
+        long current = version;
+        RenderedText cached = renderedView;
+        if (cached != null && cached.isCurrent(current)) {
+            return cached.getText();
         }
-
-        String result = String.format(
-                "Patient NRIC: %s\n"
-                        + "Name: %s\n"
-                        + "Date of Birth: %s\n"
-                        + "Gender: %s\n"
-                        + "Address: %s\n"
-                        + "Contact: %s\n"
-                        + "Medical History: %s",
-                id, name, dob, gender, address, contactInfo, formattedMedicalHistory);
-
-        if (appointments.isEmpty()) {
-            result += "\nAppointments: None";
-        } else {
-            result += "\nAppointments:";
-            for (Appointment appt : appointments) {
-                result += String.format(
-                        "\n- [%s][%s]: %s (%s)",
-                        appt.getId(),
-                        appt.getStatusIcon(),
-                        appt.getDateTime().format(Appointment.OUTPUT_FORMAT),
-                        appt.getDescription());
-            }
-        }
-        return result;
+        StringBuilder result = new StringBuilder(256);
+        Renderer.appendPatient(result, this);
+        String text = result.toString();
+        renderedView = new RenderedText(current, text);
+        return text;
     }
 
     public String toStringForListView() {
-        String result = String.format(
-                "Patient NRIC: %s\n   "
-                        + "Name: %s\n   "
-                        + "Date of Birth: %s\n   "
-                        + "Gender: %s\n   "
-                        + "Address: %s\n   "
-                        + "Contact: %s",
-                id, name, dob, gender, address, contactInfo);
-
-        if (medicalHistory.isEmpty()) {
-            result += "\n   Medical History: None";
-        } else {
-            result += "\n   Medical History:";
-            for (String h : medicalHistory) {
-                result += "\n   - " + h;
-            }
+        long current = version;
+        RenderedText cached = renderedListView;
+        if (cached != null && cached.isCurrent(current)) {
+            return cached.getText();
         }
-
-        if (appointments.isEmpty()) {
-            result += "\n   Appointments: None";
-        } else {
-            result += "\n   Appointments:";
-            for (Appointment appt : appointments) {
-                result += String.format(
-                        "\n   - [%s][%s]: %s (%s)",
-                        appt.getId(),
-                        appt.getStatusIcon(),
-                        appt.getDateTime().format(Appointment.OUTPUT_FORMAT),
-                        appt.getDescription());
-            }
-        }
-        return result;
+        StringBuilder result = new StringBuilder(256);
+        Renderer.appendPatientListView(result, this);
+        String text = result.toString();
+        renderedListView = new RenderedText(current, text);
+        return text;
     }
 
     public String toFileFormat() {
         return this.id + "|" + this.name + "|" + this.dob + "|" + this.gender + "|"
                 + this.address + "|" + this.contactInfo + "|" + this.medicalHistory;
     }
+
+    //@@author Basudeb2005
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the patient as changed, so the cached views are rendered again on next use.
+     * The setters call this themselves; changes made through the lists returned by
+     * {@link #getMedicalHistory()} or to one of the appointments must call it explicitly.
+     */
+    void touch() {
+        version++;
+    }
 }
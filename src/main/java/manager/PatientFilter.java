@@ -0,0 +1,120 @@
+package manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author Basudeb2005
+public class PatientFilter {
+    private String nric;
+    private Integer minAge;
+    private Integer maxAge;
+    private Integer birthYear;
+    private String gender;
+    private int offset = 0;
+    private int limit = Integer.MAX_VALUE;
+
+    public String getNric() {
+        return nric;
+    }
+
+    public void setNric(String nric) {
+        this.nric = nric;
+    }
+
+    public void setAgeRange(int minAge, int maxAge) {
+        assert minAge <= maxAge : "Minimum age cannot exceed maximum age";
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public void setBirthYear(Integer birthYear) {
+        this.birthYear = birthYear;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        assert offset >= 0 : "Offset cannot be negative";
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        assert limit >= 0 : "Limit cannot be negative";
+        this.limit = limit;
+    }
+
+    public boolean hasCriteria() {
+        return nric != null || hasDobRange() || gender != null;
+    }
+
+    public boolean hasDobRange() {
+        return minAge != null || birthYear != null;
+    }
+
+    // Someone aged exactly maxAge today was born at the earliest a day after their (maxAge + 1)th birthday
+    public LocalDate getEarliestDob(LocalDate today) {
+        LocalDate earliest = LocalDate.MIN;
+        if (minAge != null) {
+            earliest = today.minusYears(maxAge + 1L).plusDays(1);
+        }
+        if (birthYear != null && earliest.getYear() < birthYear) {
+            earliest = LocalDate.of(birthYear, 1, 1);
+        }
+        return earliest;
+    }
+
+    public LocalDate getLatestDob(LocalDate today) {
+        LocalDate latest = LocalDate.MAX;
+        if (minAge != null) {
+            latest = today.minusYears(minAge);
+        }
+        if (birthYear != null && latest.getYear() > birthYear) {
+            latest = LocalDate.of(birthYear, 12, 31);
+        }
+        return latest;
+    }
+
+    /**
+     * Checks the NRIC and date of birth criteria. Gender is matched against the bitmap index instead.
+     */
+    public boolean matches(Patient patient, LocalDate today) {
+        if (nric != null && !patient.getId().equalsIgnoreCase(nric.trim())) {
+            return false;
+        }
+        return !hasDobRange() || (!patient.getDob().isBefore(getEarliestDob(today))
+                && !patient.getDob().isAfter(getLatestDob(today)));
+    }
+
+    @Override
+    public String toString() {
+        List<String> criteria = new ArrayList<>();
+        if (nric != null) {
+            criteria.add("NRIC " + nric);
+        }
+        if (minAge != null) {
+            criteria.add(minAge.equals(maxAge) ? "age " + minAge : "age " + minAge + "-" + maxAge);
+        }
+        if (birthYear != null) {
+            criteria.add("birth year " + birthYear);
+        }
+        if (gender != null) {
+            criteria.add("gender " + gender);
+        }
+        return String.join(", ", criteria);
+    }
+}
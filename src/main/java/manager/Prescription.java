@@ -8,7 +8,8 @@ import java.util.List;
 
 //@@author Basudeb2005
 public class Prescription {
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final IdAllocator ID_ALLOCATOR = new IdAllocator("prescription", 1, 10);
     
     private final String patientId;
     private final LocalDateTime timestamp;
@@ -36,6 +37,15 @@ public class Prescription {
         this.notes = notes;
     }
     
+    // Each patient has their own numbering, e.g. S1234567A-1, S1234567A-2
+    public static String nextId(String patientId) {
+        return patientId + "-" + ID_ALLOCATOR.next(patientId);
+    }
+
+    public static IdAllocator getIdAllocator() {
+        return ID_ALLOCATOR;
+    }
+
     public String getPatientId() {
         return patientId;
     }
@@ -62,24 +72,9 @@ public class Prescription {
     
     @Override
     public String toString() {
-        StringBuilder symptomsStr = new StringBuilder();
-        for (String symptom : symptoms) {
-            symptomsStr.append("- ").append(symptom).append("\n");
-        }
-        
-        StringBuilder medicinesStr = new StringBuilder();
-        for (String medicine : medicines) {
-            medicinesStr.append("- ").append(medicine).append("\n");
-        }
-        
-        return String.format(
-            "Prescription [%s] (%s)\n"
-            + "Patient ID: %s\n"
-            + "Symptoms: \n%s"
-            + "Medicines: \n%s"
-            + "Notes: %s",
-            prescriptionId, timestamp.format(DATE_TIME_FORMATTER),
-            patientId, symptomsStr.toString(), medicinesStr.toString(), notes);
+        StringBuilder result = new StringBuilder(128);
+        Renderer.appendPrescription(result, this);
+        return result.toString();
     }
     
     public String toFileFormat() {
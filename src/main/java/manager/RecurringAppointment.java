@@ -0,0 +1,228 @@
+package manager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * An appointment that repeats every few days, weeks or months, kept as one rule however long it runs.
+ * Its occurrences only become {@link Appointment} objects for the window being looked at, numbered from 1,
+ * e.g. R100-3 for the third visit of series R100.
+ */
+public class RecurringAppointment {
+    public static final int MAX_OCCURRENCES = 1000;
+    public static final String ID_PREFIX = "R";
+
+    private final String id;
+    private final String nric;
+    private final LocalDateTime start;
+    private final String description;
+    private final Duration duration;
+    private final String doctor;
+    private final String room;
+    private final Frequency frequency;
+    private final int every;
+    private final int occurrences;
+
+    /**
+     * How far apart the occurrences are. Monthly occurrences keep the day of the first one,
+     * or fall on the last day of shorter months.
+     */
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS, "day"),
+        WEEKLY(ChronoUnit.WEEKS, "week"),
+        MONTHLY(ChronoUnit.MONTHS, "month");
+
+        private final ChronoUnit unit;
+        private final String period;
+
+        Frequency(ChronoUnit unit, String period) {
+            this.unit = unit;
+            this.period = period;
+        }
+
+        public String getPeriod() {
+            return period;
+        }
+    }
+
+    public RecurringAppointment(String nric, LocalDateTime start, String description, Duration duration,
+                                String doctor, String room, Frequency frequency, int every, int occurrences) {
+        this(ID_PREFIX + Appointment.getIdAllocator().next(ID_PREFIX), nric, start, description, duration,
+                doctor, room, frequency, every, occurrences);
+    }
+
+    public RecurringAppointment(String id, String nric, LocalDateTime start, String description, Duration duration,
+                                String doctor, String room, Frequency frequency, int every, int occurrences) {
+        assert nric != null && !nric.isBlank() : "NRIC cannot be null or blank";
+        assert start != null && duration != null && frequency != null : "Series details cannot be null";
+        assert every > 0 : "Series must move forward";
+        assert occurrences > 0 && occurrences <= MAX_OCCURRENCES : "Series must have 1 to 1000 occurrences";
+        this.id = id;
+        this.nric = nric;
+        this.start = start;
+        this.description = description;
+        this.duration = duration;
+        this.doctor = doctor;
+        this.room = room;
+        this.frequency = frequency;
+        this.every = every;
+        this.occurrences = occurrences;
+    }
+
+    /**
+     * Returns how many occurrences a series starting at {@code start} has on or before {@code lastDate},
+     * counting at most one more than {@link #MAX_OCCURRENCES} so callers can reject longer series.
+     */
+    public static int countUntil(LocalDateTime start, Frequency frequency, int every, LocalDate lastDate) {
+        int count = 0;
+        while (count <= MAX_OCCURRENCES
+                && !start.plus((long) count * every, frequency.unit).toLocalDate().isAfter(lastDate)) {
+            count++;
+        }
+        return count;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNric() {
+        return nric;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public String getDoctor() {
+        return doctor;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public LocalDateTime getLastStart() {
+        return startOf(occurrences - 1);
+    }
+
+    public String getResource(Resource kind) {
+        switch (kind) {
+        case PATIENT:
+            return nric;
+        case DOCTOR:
+            return doctor;
+        case ROOM:
+            return room;
+        default:
+            throw new AssertionError("Unknown resource " + kind);
+        }
+    }
+
+    /**
+     * Returns the occurrences overlapping [from, to), in order. Only the occurrences in the window are made,
+     * found by counting whole periods from the start of the series rather than stepping through them.
+     */
+    public List<Appointment> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<Appointment> found = new ArrayList<>();
+        LocalDateTime firstEndAfter = from.minus(duration);
+        long index = firstEndAfter.isAfter(start) ? frequency.unit.between(start, firstEndAfter) / every : 0;
+        // Months differ in length, so the estimate may be one period off either way
+        while (index > 0 && startOf(index - 1).plus(duration).isAfter(from)) {
+            index--;
+        }
+        while (index < occurrences && !startOf(index).plus(duration).isAfter(from)) {
+            index++;
+        }
+        for (; index < occurrences && startOf(index).isBefore(to); index++) {
+            found.add(occurrence(index));
+        }
+        return found;
+    }
+
+    /**
+     * Returns the first occurrence starting after {@code time}, or null if the series has ended by then.
+     */
+    public Appointment firstOccurrenceAfter(LocalDateTime time) {
+        long index = time.isAfter(start) ? frequency.unit.between(start, time) / every : 0;
+        while (index > 0 && startOf(index - 1).isAfter(time)) {
+            index--;
+        }
+        while (index < occurrences && !startOf(index).isAfter(time)) {
+            index++;
+        }
+        return index < occurrences ? occurrence(index) : null;
+    }
+
+    public String toFileFormat() {
+        return id + "|" + nric + "|" + start.format(Appointment.OUTPUT_FORMAT) + "|" + frequency + "|" + every + "|"
+                + occurrences + "|" + duration.toMinutes() + "|" + (doctor == null ? "" : doctor) + "|"
+                + (room == null ? "" : room) + "|" + description;
+    }
+
+    /**
+     * Reads a series saved by {@link #toFileFormat()}, or returns null if the line is not one.
+     * The description comes last, so it may contain the separator.
+     */
+    public static RecurringAppointment fromFileFormat(String line) {
+        String[] tokens = line.split("\\|", 10);
+        if (tokens.length < 10) {
+            return null;
+        }
+        try {
+            int every = Integer.parseInt(tokens[4].trim());
+            int occurrences = Integer.parseInt(tokens[5].trim());
+            long minutes = Long.parseLong(tokens[6].trim());
+            if (every <= 0 || occurrences <= 0 || occurrences > MAX_OCCURRENCES || minutes <= 0) {
+                return null;
+            }
+            return new RecurringAppointment(tokens[0].trim(), tokens[1].trim(),
+                    LocalDateTime.parse(tokens[2].trim(), Appointment.OUTPUT_FORMAT), tokens[9].trim(),
+                    Duration.ofMinutes(minutes), tokens[7].isBlank() ? null : tokens[7].trim(),
+                    tokens[8].isBlank() ? null : tokens[8].trim(), Frequency.valueOf(tokens[3].trim()),
+                    every, occurrences);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(96);
+        Renderer.appendRecurringAppointment(result, this);
+        return result.toString();
+    }
+
+    private LocalDateTime startOf(long index) {
+        return start.plus(index * every, frequency.unit);
+    }
+
+    private Appointment occurrence(long index) {
+        return new Appointment(id + "-" + (index + 1), nric, startOf(index), description, duration, doctor, room);
+    }
+}
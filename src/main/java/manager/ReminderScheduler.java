@@ -0,0 +1,229 @@
+package manager;
+
+import exception.UnloadedStorageException;
+import index.TimingWheel;
+import storage.Storage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author Basudeb2005
+/**
+ * Sends a reminder a fixed time before each appointment that is not done yet, by writing it to the
+ * outbox file. Appointments wait in a timing wheel with one tick per minute, kept up to date by the
+ * {@link ManagementSystem} as appointments are added, deleted, marked and unmarked. A recurring
+ * appointment keeps only its next visit in the wheel, and the visit after it takes its place once its
+ * reminder is sent. One thread turns the wheel every minute and sends whatever fell due.
+ */
+public class ReminderScheduler implements AutoCloseable {
+    private static final long TICK_SECONDS = 60;
+    private static final Logger LOGGER = Logger.getLogger(ReminderScheduler.class.getName());
+
+    private final Duration lead;
+    private final Supplier<LocalDateTime> clock;
+    private final LocalDateTime startedAt;
+    private final TimingWheel<Appointment> wheel;
+    // Appointments already reminded of, so re-indexing one, e.g. after unmarking it, never sends a second reminder.
+    // Each is forgotten once it has started, as from then on it is never scheduled again anyway.
+    private final Set<Appointment> reminded = new HashSet<>();
+    // The visit of each recurring appointment waiting in the wheel, and the other way round
+    private final Map<RecurringAppointment, Appointment> nextVisits = new HashMap<>();
+    private final Map<Appointment, RecurringAppointment> seriesOfVisits = new HashMap<>();
+    private ScheduledExecutorService driver;
+
+    public ReminderScheduler(Duration lead) {
+        this(lead, LocalDateTime::now);
+    }
+
+    public ReminderScheduler(Duration lead, Supplier<LocalDateTime> clock) {
+        assert lead != null && !lead.isNegative() : "Reminder lead time cannot be negative";
+        this.lead = lead;
+        this.clock = clock;
+        this.startedAt = clock.get();
+        this.wheel = new TimingWheel<>(tickOf(startedAt));
+    }
+
+    public Duration getLead() {
+        return lead;
+    }
+
+    /**
+     * Schedules the appointment's reminder, or cancels it if the appointment is done or has already started.
+     * A reminder whose time has passed for an appointment still to come is sent at the next tick.
+     */
+    public synchronized void update(Appointment appointment) {
+        if (reminded.contains(appointment)) {
+            return;
+        }
+        if (appointment.isDone() || !appointment.getDateTime().isAfter(clock.get())) {
+            wheel.cancel(appointment);
+            return;
+        }
+        wheel.schedule(appointment, tickOf(appointment.getDateTime().minus(lead)));
+    }
+
+    /**
+     * Takes in an appointment booked before the scheduler started. A reminder that fell due before then is
+     * taken as sent, since an earlier run may have sent it, so restarting never sends it a second time.
+     */
+    public synchronized void restore(Appointment appointment) {
+        if (appointment.getDateTime().minus(lead).isBefore(startedAt)) {
+            reminded.add(appointment);
+            return;
+        }
+        update(appointment);
+    }
+
+    public synchronized void cancel(Appointment appointment) {
+        wheel.cancel(appointment);
+        reminded.remove(appointment);
+    }
+
+    /**
+     * Schedules the reminder of the series' next visit that is still to come, replacing any visit of the
+     * series already waiting.
+     */
+    public synchronized void updateSeries(RecurringAppointment series) {
+        cancelSeries(series);
+        armSeries(series, series.firstOccurrenceAfter(clock.get()));
+    }
+
+    /**
+     * Takes in a series created before the scheduler started. As with {@link #restore(Appointment)},
+     * a visit whose reminder fell due before then is taken as reminded of, and the visit after it is scheduled.
+     */
+    public synchronized void restoreSeries(RecurringAppointment series) {
+        cancelSeries(series);
+        Appointment visit = series.firstOccurrenceAfter(clock.get());
+        if (visit != null && visit.getDateTime().minus(lead).isBefore(startedAt)) {
+            visit = series.firstOccurrenceAfter(visit.getDateTime());
+        }
+        armSeries(series, visit);
+    }
+
+    public synchronized void cancelSeries(RecurringAppointment series) {
+        Appointment visit = nextVisits.remove(series);
+        if (visit != null) {
+            seriesOfVisits.remove(visit);
+            wheel.cancel(visit);
+        }
+    }
+
+    private void armSeries(RecurringAppointment series, Appointment visit) {
+        if (visit == null) {
+            return;
+        }
+        nextVisits.put(series, visit);
+        seriesOfVisits.put(visit, series);
+        wheel.schedule(visit, tickOf(visit.getDateTime().minus(lead)));
+    }
+
+    public boolean isPending(Appointment appointment) {
+        return wheel.isScheduled(appointment);
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Turns the wheel to the current minute and writes a reminder for every appointment that fell due.
+     *
+     * @return the appointments reminded of
+     */
+    public List<Appointment> sendDue() throws UnloadedStorageException {
+        LocalDateTime now = clock.get();
+        List<Appointment> due;
+        synchronized (this) {
+            due = wheel.advanceTo(tickOf(now));
+            reminded.removeIf(appointment -> !appointment.getDateTime().isAfter(now));
+            for (Appointment appointment : due) {
+                if (!seriesOfVisits.containsKey(appointment)) {
+                    reminded.add(appointment);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return due;
+        }
+        List<String> reminders = new ArrayList<>(due.size());
+        for (Appointment appointment : due) {
+            reminders.add(now.format(Appointment.OUTPUT_FORMAT) + " | " + appointment.getNric()
+                    + " | Reminder: " + appointment);
+        }
+        try {
+            Storage.appendToOutbox(reminders);
+        } catch (UnloadedStorageException e) {
+            // Nothing was sent, so all of them are tried again at the next tick
+            synchronized (this) {
+                for (Appointment appointment : due) {
+                    if (reminded.remove(appointment) || seriesOfVisits.containsKey(appointment)) {
+                        wheel.schedule(appointment, tickOf(now));
+                    }
+                }
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (Appointment appointment : due) {
+                RecurringAppointment series = seriesOfVisits.remove(appointment);
+                if (series != null) {
+                    nextVisits.remove(series);
+                    armSeries(series, series.firstOccurrenceAfter(appointment.getDateTime()));
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Starts the one thread that sends due reminders every minute until {@link #close()}.
+     */
+    public synchronized void start() {
+        if (driver != null) {
+            return;
+        }
+        driver = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        driver.scheduleAtFixedRate(() -> {
+            try {
+                sendDue();
+            } catch (UnloadedStorageException e) {
+                // Kept in the wheel by sendDue, so a full disk only delays the reminders
+            } catch (RuntimeException e) {
+                // An exception escaping the task would cancel every later run, so it is logged and the wheel
+                // turns again next minute
+                LOGGER.log(Level.WARNING, "Could not send reminders", e);
+            }
+        }, 0, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (driver != null) {
+            driver.shutdownNow();
+            driver = null;
+        }
+    }
+
+    // Minutes since 1970 on the wall clock, the same clock appointment times are written in
+    private static long tickOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / TICK_SECONDS;
+    }
+}
@@ -0,0 +1,24 @@
+package manager;
+
+//@@author Basudeb2005
+/**
+ * Text rendered from a record together with the version of the record it was rendered from.
+ * It is replaced as a whole, so a reader never sees text from one version tagged with another.
+ */
+final class RenderedText {
+    private final long version;
+    private final String text;
+
+    RenderedText(long version, String text) {
+        this.version = version;
+        this.text = text;
+    }
+
+    boolean isCurrent(long currentVersion) {
+        return version == currentVersion;
+    }
+
+    String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,142 @@
+package manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * Writes the text views of patients, appointments and prescriptions straight to an {@link Appendable},
+ * so a listing goes into the output buffer piece by piece without building a string per record.
+ * The toString methods of the records use the same code, so both always show the same text.
+ */
+public class Renderer {
+    private static final String LIST_INDENT = "\n   ";
+
+    public static void appendPatient(Appendable out, Patient patient) {
+        try {
+            out.append("Patient NRIC: ").append(patient.getId())
+                    .append("\nName: ").append(patient.getName())
+                    .append("\nDate of Birth: ").append(String.valueOf(patient.getDob()))
+                    .append("\nGender: ").append(patient.getGender())
+                    .append("\nAddress: ").append(patient.getAddress())
+                    .append("\nContact: ").append(patient.getContactInfo())
+                    .append("\nMedical History: ");
+            List<String> medicalHistory = patient.getMedicalHistory();
+            if (medicalHistory.isEmpty()) {
+                out.append("None");
+            } else {
+                String separator = "";
+                for (String history : medicalHistory) {
+                    out.append(separator).append(history);
+                    separator = ", ";
+                }
+            }
+            appendAppointmentSummaries(out, patient.getAppointments(), "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void appendPatientListView(Appendable out, Patient patient) {
+        try {
+            out.append("Patient NRIC: ").append(patient.getId())
+                    .append(LIST_INDENT).append("Name: ").append(patient.getName())
+                    .append(LIST_INDENT).append("Date of Birth: ").append(String.valueOf(patient.getDob()))
+                    .append(LIST_INDENT).append("Gender: ").append(patient.getGender())
+                    .append(LIST_INDENT).append("Address: ").append(patient.getAddress())
+                    .append(LIST_INDENT).append("Contact: ").append(patient.getContactInfo());
+            List<String> medicalHistory = patient.getMedicalHistory();
+            if (medicalHistory.isEmpty()) {
+                out.append(LIST_INDENT).append("Medical History: None");
+            } else {
+                out.append(LIST_INDENT).append("Medical History:");
+                for (String history : medicalHistory) {
+                    out.append(LIST_INDENT).append("- ").append(history);
+                }
+            }
+            appendAppointmentSummaries(out, patient.getAppointments(), LIST_INDENT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void appendAppointment(Appendable out, Appointment appointment) {
+        try {
+            out.append('[').append(appointment.getId()).append("][").append(appointment.getStatusIcon())
+                    .append("] - ").append(appointment.getNric()).append(" - ");
+            Appointment.OUTPUT_FORMAT.formatTo(appointment.getDateTime(), out);
+            out.append(" - ").append(appointment.getDescription());
+            appendResources(out, appointment.getDoctor(), appointment.getRoom());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void appendRecurringAppointment(Appendable out, RecurringAppointment series) {
+        try {
+            String unit = series.getFrequency().getPeriod();
+            out.append('[').append(series.getId()).append("] - ").append(series.getNric()).append(" - every ");
+            if (series.getEvery() > 1) {
+                out.append(String.valueOf(series.getEvery())).append(' ').append(unit).append('s');
+            } else {
+                out.append(unit);
+            }
+            out.append(" from ");
+            Appointment.OUTPUT_FORMAT.formatTo(series.getStart(), out);
+            out.append(", ").append(String.valueOf(series.getOccurrences())).append(" time(s) - ")
+                    .append(series.getDescription());
+            appendResources(out, series.getDoctor(), series.getRoom());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendResources(Appendable out, String doctor, String room) throws IOException {
+        if (doctor == null && room == null) {
+            return;
+        }
+        out.append(" (");
+        if (doctor != null) {
+            out.append("doctor: ").append(doctor);
+        }
+        if (room != null) {
+            out.append(doctor != null ? ", room: " : "room: ").append(room);
+        }
+        out.append(')');
+    }
+
+    public static void appendPrescription(Appendable out, Prescription prescription) {
+        try {
+            out.append("Prescription [").append(prescription.getPrescriptionId()).append("] (");
+            Prescription.DATE_TIME_FORMATTER.formatTo(prescription.getTimestamp(), out);
+            out.append(")\nPatient ID: ").append(prescription.getPatientId())
+                    .append("\nSymptoms: \n");
+            for (String symptom : prescription.getSymptoms()) {
+                out.append("- ").append(symptom).append('\n');
+            }
+            out.append("Medicines: \n");
+            for (String medicine : prescription.getMedicines()) {
+                out.append("- ").append(medicine).append('\n');
+            }
+            out.append("Notes: ").append(prescription.getNotes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendAppointmentSummaries(Appendable out, List<Appointment> appointments, String indent)
+            throws IOException {
+        if (appointments.isEmpty()) {
+            out.append(indent).append("Appointments: None");
+            return;
+        }
+        out.append(indent).append("Appointments:");
+        for (Appointment appointment : appointments) {
+            out.append(indent).append("- [").append(appointment.getId()).append("][")
+                    .append(appointment.getStatusIcon()).append("]: ");
+            Appointment.OUTPUT_FORMAT.formatTo(appointment.getDateTime(), out);
+            out.append(" (").append(appointment.getDescription()).append(')');
+        }
+    }
+}
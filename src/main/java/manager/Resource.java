@@ -0,0 +1,22 @@
+package manager;
+
+//@@author Basudeb2005
+/**
+ * Things an appointment needs that can only be in one place at a time.
+ */
+public enum Resource {
+    PATIENT("patient"),
+    DOCTOR("doctor"),
+    ROOM("room");
+
+    private final String label;
+
+    Resource(String label) {
+        this.label = label;
+    }
+
+    // Names the given resource for messages, e.g. "doctor Tan"
+    public String describe(String name) {
+        return label + " " + name;
+    }
+}
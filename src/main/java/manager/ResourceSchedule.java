@@ -0,0 +1,102 @@
+package manager;
+
+import index.IntervalIndex;
+import index.SlotCalendar;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * Bookings of one patient, doctor or room. The interval index keeps them in time order and answers
+ * overlaps and day views in logarithmic time, while the slot calendar answers free time.
+ * Recurring series are kept as rules, and only their occurrences in the window asked about are made.
+ */
+class ResourceSchedule {
+    private final IntervalIndex<LocalDateTime, Appointment> bookings = new IntervalIndex<>();
+    private final SlotCalendar slots = new SlotCalendar();
+    private final List<RecurringAppointment> series = new ArrayList<>();
+
+    void add(Appointment appointment) {
+        bookings.put(appointment, appointment.getDateTime(), appointment.getEndDateTime());
+        slots.occupy(appointment.getDateTime(), appointment.getEndDateTime());
+    }
+
+    // Slots shared with other bookings must stay busy, so the days of the removed booking are filled
+    // again from the bookings left on them
+    void remove(Appointment appointment) {
+        bookings.remove(appointment);
+        LocalDate lastDay = appointment.getEndDateTime().minusNanos(1).toLocalDate();
+        for (LocalDate day = appointment.getDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            slots.clear(day);
+            for (Appointment remaining : bookings.overlapping(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                slots.occupy(remaining.getDateTime(), remaining.getEndDateTime());
+            }
+        }
+    }
+
+    void addSeries(RecurringAppointment recurring) {
+        series.add(recurring);
+    }
+
+    void removeSeries(RecurringAppointment recurring) {
+        series.remove(recurring);
+    }
+
+    Appointment findOverlapping(LocalDateTime start, LocalDateTime end) {
+        Appointment clash = bookings.findOverlapping(start, end);
+        for (int i = 0; clash == null && i < series.size(); i++) {
+            List<Appointment> occurrences = series.get(i).occurrencesBetween(start, end);
+            clash = occurrences.isEmpty() ? null : occurrences.get(0);
+        }
+        return clash;
+    }
+
+    // Bookings and occurrences overlapping [from, to), in order of start
+    List<Appointment> between(LocalDateTime from, LocalDateTime to) {
+        List<Appointment> found = bookings.overlapping(from, to);
+        if (series.isEmpty()) {
+            return found;
+        }
+        for (RecurringAppointment recurring : series) {
+            found.addAll(recurring.occurrencesBetween(from, to));
+        }
+        found.sort(Comparator.comparing(Appointment::getDateTime));
+        return found;
+    }
+
+    // Time within [from, to) covered by at least one booking, so overlapping bookings count once
+    Duration bookedTime(LocalDateTime from, LocalDateTime to) {
+        Duration booked = Duration.ZERO;
+        LocalDateTime coveredUntil = from;
+        for (Appointment appointment : between(from, to)) {
+            LocalDateTime start = appointment.getDateTime().isAfter(coveredUntil)
+                    ? appointment.getDateTime() : coveredUntil;
+            LocalDateTime end = appointment.getEndDateTime().isBefore(to) ? appointment.getEndDateTime() : to;
+            if (end.isAfter(start)) {
+                booked = booked.plus(Duration.between(start, end));
+                coveredUntil = end;
+            }
+        }
+        return booked;
+    }
+
+    // The slot maps covering [from, to): the one of the bookings, and one filled with the occurrences
+    // of the series in the window, if there are any
+    List<SlotCalendar> slotsBetween(LocalDateTime from, LocalDateTime to) {
+        if (series.isEmpty()) {
+            return List.of(slots);
+        }
+        SlotCalendar occurrenceSlots = new SlotCalendar();
+        for (RecurringAppointment recurring : series) {
+            for (Appointment occurrence : recurring.occurrencesBetween(from, to)) {
+                occurrenceSlots.occupy(occurrence.getDateTime(), occurrence.getEndDateTime());
+            }
+        }
+        return List.of(slots, occurrenceSlots);
+    }
+}
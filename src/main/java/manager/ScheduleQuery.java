@@ -0,0 +1,48 @@
+package manager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+//@@author Basudeb2005
+/**
+ * The schedule of one patient, doctor or room over a range of days, both inclusive.
+ */
+public class ScheduleQuery {
+    private final Resource kind;
+    private final String name;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    public ScheduleQuery(Resource kind, String name, LocalDate from, LocalDate to) {
+        assert kind != null : "Resource kind cannot be null";
+        assert name != null && !name.isBlank() : "Resource name cannot be null or blank";
+        assert from != null && to != null && !from.isAfter(to) : "Date range must not be empty";
+        this.kind = kind;
+        this.name = name;
+        this.from = from;
+        this.to = to;
+    }
+
+    public Resource getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    // Clinic hours in the range, which utilisation is measured against
+    public Duration getOpenTime() {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        return Duration.between(SlotRequest.CLINIC_OPENS, SlotRequest.CLINIC_CLOSES).multipliedBy(days);
+    }
+}
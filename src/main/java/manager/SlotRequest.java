@@ -0,0 +1,71 @@
+package manager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+//@@author Basudeb2005
+/**
+ * What the next-slot command looks for: time of some length, from some moment on, when a patient and
+ * optionally a doctor and a room are all free.
+ * Only times within clinic hours are offered.
+ */
+public class SlotRequest {
+    public static final LocalTime CLINIC_OPENS = LocalTime.of(9, 0);
+    public static final LocalTime CLINIC_CLOSES = LocalTime.of(18, 0);
+
+    private final String nric;
+    private final LocalDateTime earliest;
+    private final Duration duration;
+    private final int count;
+    private final String doctor;
+    private final String room;
+
+    public SlotRequest(String nric, LocalDateTime earliest, Duration duration, int count) {
+        this(nric, earliest, duration, count, null, null);
+    }
+
+    // The doctor and the room may be null if the appointment does not need them
+    public SlotRequest(String nric, LocalDateTime earliest, Duration duration, int count,
+                       String doctor, String room) {
+        assert nric != null && !nric.isBlank() : "NRIC cannot be null or blank";
+        assert earliest != null : "Earliest time cannot be null";
+        assert duration != null : "Duration cannot be null";
+        assert count > 0 : "At least one slot must be asked for";
+        this.nric = nric;
+        this.earliest = earliest;
+        this.duration = duration;
+        this.count = count;
+        this.doctor = doctor;
+        this.room = room;
+    }
+
+    public String getNric() {
+        return nric;
+    }
+
+    public LocalDateTime getEarliest() {
+        return earliest;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getResource(Resource kind) {
+        switch (kind) {
+        case PATIENT:
+            return nric;
+        case DOCTOR:
+            return doctor;
+        case ROOM:
+            return room;
+        default:
+            throw new AssertionError("Unknown resource " + kind);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package manager;
+
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * The lists of records as they were at one version of a {@link ManagementSystem}. Holding on to a snapshot
+ * never blocks writers. What it guarantees:
+ * <ul>
+ *   <li>The three lists are taken together under one read lock, so which patients, appointments and
+ *       prescriptions they hold, and in what order, is exactly what they were at {@link #getVersion()}.
+ *       Later adds, deletes and sorts never change them.</li>
+ *   <li>The records are the live ones, not copies. A change made after the snapshot, such as an edit or a
+ *       mark, may show in a record it lists, and a patient edited by several fields at once may show only
+ *       some of them. Callers that need a whole edit to appear at once read through the manager's locked
+ *       lookups instead.</li>
+ *   <li>Each patient's appointments and medical history are copy-on-write lists, so iterating them never
+ *       fails while a writer changes them. They may already hold entries added after the snapshot.</li>
+ * </ul>
+ * Building a snapshot copies all three lists, so it costs time in proportion to the number of records.
+ */
+public class Snapshot {
+    private final long version;
+    private final List<Patient> patients;
+    private final List<Appointment> appointments;
+    private final List<Prescription> prescriptions;
+
+    Snapshot(long version, List<Patient> patients, List<Appointment> appointments,
+             List<Prescription> prescriptions) {
+        this.version = version;
+        this.patients = List.copyOf(patients);
+        this.appointments = List.copyOf(appointments);
+        this.prescriptions = List.copyOf(prescriptions);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Patient> getPatients() {
+        return patients;
+    }
+
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    public List<Prescription> getPrescriptions() {
+        return prescriptions;
+    }
+}
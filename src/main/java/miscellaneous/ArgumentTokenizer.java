@@ -0,0 +1,89 @@
+package miscellaneous;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//@@author Basudeb2005
+/**
+ * Splits the arguments of a command into prefix to value pairs in one pass over the input.
+ * A prefix counts only at the start of the input or right after whitespace, and is matched ignoring case.
+ * A value runs until the next different prefix, so repeating a prefix keeps it as part of the value,
+ * and only the first occurrence of each prefix is used.
+ */
+class ArgumentTokenizer {
+    private static final String[] PREFIXES = {
+        "n/", "ic/", "dob/", "g/", "p/", "a/", "dt/", "t/",
+        "dsc/", "h/", "old/", "new/", "s/", "m/", "nt/", "sl/", "age/", "yob/",
+        "st/", "mth/", "from/", "to/", "offset/", "limit/", "dur/", "doc/", "rm/",
+        "rep/", "every/", "times/", "until/"
+    };
+    // Prefixes grouped by their first letter, so each position is checked against a handful of candidates
+    private static final String[][] PREFIXES_BY_FIRST_LETTER = new String[128][];
+
+    static {
+        for (String prefix : PREFIXES) {
+            int letter = prefix.charAt(0);
+            String[] candidates = PREFIXES_BY_FIRST_LETTER[letter];
+            if (candidates == null) {
+                candidates = new String[0];
+            }
+            String[] extended = new String[candidates.length + 1];
+            System.arraycopy(candidates, 0, extended, 0, candidates.length);
+            extended[candidates.length] = prefix;
+            PREFIXES_BY_FIRST_LETTER[letter] = extended;
+        }
+    }
+
+    /**
+     * Returns the trimmed value of each prefix found in {@code input}, keyed by the prefix in lower case.
+     * Prefixes with a blank value are left out.
+     */
+    static Map<String, String> tokenize(String input) {
+        List<String> prefixes = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < input.length(); i++) {
+            if (i > 0 && !Character.isWhitespace(input.charAt(i - 1))) {
+                continue;
+            }
+            String prefix = prefixAt(input, i);
+            if (prefix != null) {
+                prefixes.add(prefix);
+                positions.add(i);
+                i += prefix.length() - 1;
+            }
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (int k = 0; k < prefixes.size(); k++) {
+            String prefix = prefixes.get(k);
+            if (values.containsKey(prefix)) {
+                continue;
+            }
+            int next = k + 1;
+            while (next < prefixes.size() && prefixes.get(next).equals(prefix)) {
+                next++;
+            }
+            int start = positions.get(k) + prefix.length();
+            int end = next < prefixes.size() ? positions.get(next) : input.length();
+            String value = input.substring(start, end).trim();
+            values.put(prefix, value.isEmpty() ? null : value);
+        }
+        values.values().removeIf(value -> value == null);
+        return values;
+    }
+
+    private static String prefixAt(String input, int index) {
+        char letter = Character.toLowerCase(input.charAt(index));
+        if (letter >= PREFIXES_BY_FIRST_LETTER.length || PREFIXES_BY_FIRST_LETTER[letter] == null) {
+            return null;
+        }
+        for (String prefix : PREFIXES_BY_FIRST_LETTER[letter]) {
+            if (input.regionMatches(true, index, prefix, 0, prefix.length())) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package miscellaneous;
+
+import command.Command;
+import command.CommandFactory;
+import command.CommandPlugin;
+import exception.InvalidInputFormatException;
+import exception.UnknownCommandException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+//@@author Basudeb2005
+/**
+ * Maps command words to the factories that create their commands. The table is sized up front for the
+ * commands we expect, so adding commands keeps lookup a single hash probe without rehashing.
+ * Sessions look commands up concurrently without locking.
+ */
+public class CommandRegistry {
+    private static final int EXPECTED_COMMANDS = 64;
+
+    private final Map<String, CommandFactory> factories = new ConcurrentHashMap<>(EXPECTED_COMMANDS);
+
+    /**
+     * Registers {@code factory} for {@code commandWord}, which is matched ignoring case.
+     *
+     * @throws IllegalArgumentException if another command already uses the word
+     */
+    public void register(String commandWord, CommandFactory factory) {
+        assert commandWord != null && !commandWord.isBlank() : "Command word cannot be null or blank";
+        assert factory != null : "Command factory cannot be null";
+
+        String key = commandWord.toLowerCase();
+        if (factories.putIfAbsent(key, factory) != null) {
+            throw new IllegalArgumentException("Command '" + key + "' is already registered");
+        }
+    }
+
+    public boolean isRegistered(String commandWord) {
+        return factories.containsKey(commandWord.toLowerCase());
+    }
+
+    /**
+     * Registers the commands of every {@link CommandPlugin} visible to {@code classLoader}
+     * and returns how many plugins were loaded. A plugin that cannot be loaded, or that uses a command
+     * word already taken, is reported to {@code onProblem} and none of its commands are registered;
+     * the other plugins are still loaded.
+     */
+    public int loadPlugins(ClassLoader classLoader, Consumer<String> onProblem) {
+        int loaded = 0;
+        Iterator<CommandPlugin> plugins = ServiceLoader.load(CommandPlugin.class, classLoader).iterator();
+        while (hasNextPlugin(plugins, onProblem)) {
+            try {
+                CommandPlugin plugin = plugins.next();
+                CommandRegistry pluginCommands = new CommandRegistry();
+                plugin.registerCommands(pluginCommands);
+                for (String commandWord : pluginCommands.factories.keySet()) {
+                    if (isRegistered(commandWord)) {
+                        throw new IllegalArgumentException(plugin.getClass().getName() + ": command '"
+                                + commandWord + "' is already registered");
+                    }
+                }
+                pluginCommands.factories.forEach(this::register);
+                loaded++;
+            } catch (ServiceConfigurationError | IllegalArgumentException e) {
+                onProblem.accept(e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    // A plugin list that cannot be read at all ends the loading, as the loader may not get past it
+    private static boolean hasNextPlugin(Iterator<CommandPlugin> plugins, Consumer<String> onProblem) {
+        try {
+            return plugins.hasNext();
+        } catch (ServiceConfigurationError e) {
+            onProblem.accept(e.getMessage());
+            return false;
+        }
+    }
+
+    public Command create(String commandWord, String input) throws InvalidInputFormatException,
+            UnknownCommandException {
+        CommandFactory factory = factories.get(commandWord.toLowerCase());
+        if (factory == null) {
+            throw new UnknownCommandException("Unknown command. Please try again.");
+        }
+        return factory.create(input);
+    }
+}
@@ -2,13 +2,21 @@ package miscellaneous;
 
 
 import command.AddPatientCommand;
+import command.BeginTransactionCommand;
 import command.Command;
+import command.CommitTransactionCommand;
 import command.DeletePatientCommand;
 import command.ExitCommand;
 import command.AddAppointmentCommand;
+import command.AddRecurringAppointmentCommand;
 import command.DeleteAppointmentCommand;
+import command.DeleteAppointmentsCommand;
+import command.DeleteRecurringAppointmentCommand;
 import command.EditPatientCommand;
 import command.ListAppointmentCommand;
+import command.ListConflictsCommand;
+import command.ListRecurringAppointmentCommand;
+import command.NextSlotCommand;
 import command.EditPatientHistoryCommand;
 import command.ListPatientCommand;
 import command.SortAppointmentCommand;
@@ -16,102 +24,276 @@ import command.StoreMedHistoryCommand;
 import command.ViewPatientCommand;
 import command.ViewMedHistoryCommand;
 import command.MarkApppointmentCommand;
+import command.MarkAppointmentsCommand;
 import command.UnmarkAppointmentCommand;
+import command.UtilisationCommand;
+import command.ViewDayCommand;
+import command.ViewScheduleCommand;
 import command.FindAppointmentCommand;
+import command.FindPatientCommand;
 import command.AddPrescriptionCommand;
 import command.ViewAllPrescriptionsCommand;
 import command.ViewPrescriptionCommand;
+import command.RollbackTransactionCommand;
 import exception.InvalidInputFormatException;
 import exception.UnknownCommandException;
 import manager.Appointment;
+import manager.AppointmentFilter;
 import manager.Patient;
+import manager.PatientFilter;
 import manager.Prescription;
+import manager.RecurringAppointment;
+import manager.Resource;
+import manager.ScheduleQuery;
+import manager.SlotRequest;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import static manager.Appointment.INPUT_FORMAT;
 
 public class Parser {
+    // Older versions stored the date of birth as typed, commonly as dd-MM-yyyy
+    private static final DateTimeFormatter LEGACY_DOB_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final Pattern NRIC_FORMAT = Pattern.compile("^[A-Za-z]\\d{7}[A-Za-z]$");
+    private static final Pattern DELETE_APPOINTMENT_FORMAT = Pattern.compile("(?i)delete-appointment\\s+A\\d+");
+    private static final Pattern DELETE_RECURRING_FORMAT = Pattern.compile("(?i)delete-recurring\\s+R\\d+");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile(",\\s*");
+    private static final Pattern RANGE_SEPARATOR = Pattern.compile("\\s*-\\s*");
+    private static final Pattern WHOLE_NUMBER = Pattern.compile("\\d+");
+    private static final long MAX_APPOINTMENT_MINUTES = 24 * 60;
+    private static final int MAX_SLOTS_SHOWN = 20;
+    private static final int MAX_SCHEDULE_DAYS = 366;
+    private static final int MAX_RECURRENCE_GAP = 365;
+    private static final int MAX_AGE = 150;
+    private static final int MIN_BIRTH_YEAR = 1900;
+    private static final int DEFAULT_RECURRING_DAYS = 30;
+    private static final CommandRegistry COMMANDS = createCommandRegistry();
+
     public static Command parse(String userInput) throws InvalidInputFormatException, UnknownCommandException {
         // Split into two parts to extract the command keyword and its detail
         String[] parts = userInput.split(" ", 2);
-        String commandWord = parts[0].toLowerCase();
-
-        switch (commandWord) {
-        case "bye":
-            return new ExitCommand();
-        case "add-patient":
-            return new AddPatientCommand(parseAddPatient(userInput));
-        case "delete-patient":
-            return new DeletePatientCommand(parseDeletePatient(userInput));
-        case "view-patient":
-            return new ViewPatientCommand(parseViewPatient(userInput));
-        case "list-patient":
-            return new ListPatientCommand();
-        case "store-history":
-            return new StoreMedHistoryCommand(parseStoreHistory(userInput));
-        case "view-history":
-            return new ViewMedHistoryCommand(parseViewHistory(userInput));
-        case "add-appointment":
-            return new AddAppointmentCommand(parseAddAppointment(userInput));
-        case "delete-appointment":
-            return new DeleteAppointmentCommand(parseDeleteAppointment(userInput));
-        case "list-appointment":
-            return new ListAppointmentCommand();
-        case "sort-appointment":
-            return new SortAppointmentCommand(parseSortAppointment(userInput));
-        case "edit-patient":
-            return new EditPatientCommand(parseEditPatient(userInput));
-        case "edit-history":
-            return new EditPatientHistoryCommand(parseEditHistory(userInput));
-        case "mark-appointment":
-            return new MarkApppointmentCommand(parseMarkAppointment(userInput));
-        case "unmark-appointment":
-            return new UnmarkAppointmentCommand(parseUnmarkAppointment(userInput));
-        case "find-appointment":
-            return new FindAppointmentCommand(parseFindAppointment(userInput));
-        case "add-prescription":
-            return new AddPrescriptionCommand(parseAddPrescription(userInput));
-        case "view-all-prescriptions":
-            return new ViewAllPrescriptionsCommand(parseViewAllPrescriptions(userInput));
-        case "view-prescription":
-            return new ViewPrescriptionCommand(parseViewPrescription(userInput));
-        default:
-            throw new UnknownCommandException("Unknown command. Please try again.");
-        }
+        return COMMANDS.create(parts[0], userInput);
+    }
+
+    public static CommandRegistry getCommandRegistry() {
+        return COMMANDS;
+    }
+
+    private static CommandRegistry createCommandRegistry() {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("bye", input -> new ExitCommand());
+        registry.register("add-patient", input -> new AddPatientCommand(parseAddPatient(input)));
+        registry.register("delete-patient", input -> new DeletePatientCommand(parseDeletePatient(input)));
+        registry.register("view-patient", input -> new ViewPatientCommand(parseViewPatient(input)));
+        registry.register("list-patient", input -> new ListPatientCommand(parseListPatient(input)));
+        registry.register("find-patient", input -> new FindPatientCommand(parseFindPatient(input)));
+        registry.register("store-history", input -> new StoreMedHistoryCommand(parseStoreHistory(input)));
+        registry.register("view-history", input -> new ViewMedHistoryCommand(parseViewHistory(input)));
+        registry.register("add-appointment", input -> new AddAppointmentCommand(parseAddAppointment(input)));
+        registry.register("delete-appointment", input -> new DeleteAppointmentCommand(parseDeleteAppointment(input)));
+        registry.register("list-appointment", input -> new ListAppointmentCommand(parseListAppointment(input)));
+        registry.register("sort-appointment", input -> new SortAppointmentCommand(parseSortAppointment(input)));
+        registry.register("edit-patient", input -> new EditPatientCommand(parseEditPatient(input)));
+        registry.register("edit-history", input -> new EditPatientHistoryCommand(parseEditHistory(input)));
+        registry.register("mark-appointment", input -> new MarkApppointmentCommand(parseMarkAppointment(input)));
+        registry.register("unmark-appointment", input -> new UnmarkAppointmentCommand(parseUnmarkAppointment(input)));
+        registry.register("find-appointment", input -> new FindAppointmentCommand(parseFindAppointment(input)));
+        registry.register("add-prescription", input -> new AddPrescriptionCommand(parseAddPrescription(input)));
+        registry.register("view-all-prescriptions",
+                input -> new ViewAllPrescriptionsCommand(parseViewAllPrescriptions(input)));
+        registry.register("view-prescription", input -> new ViewPrescriptionCommand(parseViewPrescription(input)));
+        registry.register("mark-appointments",
+                input -> new MarkAppointmentsCommand(parseBulkAppointment(input, "mark-appointments"), true));
+        registry.register("unmark-appointments",
+                input -> new MarkAppointmentsCommand(parseBulkAppointment(input, "unmark-appointments"), false));
+        registry.register("delete-appointments",
+                input -> new DeleteAppointmentsCommand(parseBulkAppointment(input, "delete-appointments")));
+        registry.register("list-conflicts", input -> new ListConflictsCommand());
+        registry.register("next-slot", input -> new NextSlotCommand(parseNextSlot(input)));
+        registry.register("view-schedule", input -> new ViewScheduleCommand(parseViewSchedule(input)));
+        registry.register("utilisation", input -> new UtilisationCommand(parseUtilisation(input)));
+        registry.register("add-recurring", input -> new AddRecurringAppointmentCommand(parseAddRecurring(input)));
+        registry.register("delete-recurring",
+                input -> new DeleteRecurringAppointmentCommand(parseDeleteRecurring(input)));
+        registry.register("list-recurring", input -> new ListRecurringAppointmentCommand(parseListRecurring(input)));
+        registry.register("today", input -> new ViewDayCommand(LocalDate.now()));
+        registry.register("day", input -> new ViewDayCommand(parseDay(input)));
+        registry.register("begin", input -> new BeginTransactionCommand());
+        registry.register("commit", input -> new CommitTransactionCommand());
+        registry.register("rollback", input -> new RollbackTransactionCommand());
+        return registry;
     }
 
     private static Patient parseAddPatient(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)add-patient\\s*", "");
-        String name = extractValue(temp, "n/");
-        String nric = extractValue(temp, "ic/");
-        String birthdate = extractValue(temp, "dob/");
-        String gender = extractValue(temp, "g/");
-        String phone = extractValue(temp, "p/");
-        String address = extractValue(temp, "a/");
-        String history = extractValue(temp, "h/");
+        String temp = removeCommandWord(input, "add-patient");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
+        String name = arguments.get("n/");
+        String nric = arguments.get("ic/");
+        String birthdate = arguments.get("dob/");
+        String gender = arguments.get("g/");
+        String phone = arguments.get("p/");
+        String address = arguments.get("a/");
+        String history = arguments.get("h/");
 
         if (name == null || nric == null || birthdate == null || gender == null || phone == null || address == null) {
             throw new InvalidInputFormatException("Patient details are incomplete!" + System.lineSeparator()
                     + "Also, please use: add-patient n/NAME ic/NRIC dob/BIRTHDATE g/GENDER p/PHONE a/ADDRESS");
         }
 
+        LocalDate dob = parseDob(birthdate.trim());
+
         List<String> medHistory = new ArrayList<>();
         if (history != null && !history.trim().isEmpty()) {
-            String[] entries = history.split(",\\s*");
+            String[] entries = LIST_SEPARATOR.split(history);
             for (String entry : entries) {
                 medHistory.add(entry.trim());
             }
         }
 
-        return new Patient(nric.trim(), name.trim(), birthdate.trim(),
+        return new Patient(nric.trim(), name.trim(), dob,
                 gender.trim(), address.trim(), phone.trim(), medHistory);
     }
 
+    private static LocalDate parseDob(String birthdate) throws InvalidInputFormatException {
+        LocalDate dob;
+        try {
+            dob = LocalDate.parse(birthdate);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date of birth. Please use: dob/yyyy-MM-dd");
+        }
+        if (dob.isAfter(LocalDate.now())) {
+            throw new InvalidInputFormatException("Date of birth cannot be in the future.");
+        }
+        return dob;
+    }
+
+    public static PatientFilter parseListPatient(String input) throws InvalidInputFormatException {
+        String temp = removeCommandWord(input, "list-patient");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
+        String nric = arguments.get("ic/");
+        String age = arguments.get("age/");
+        String birthYear = arguments.get("yob/");
+        String gender = arguments.get("g/");
+
+        PatientFilter filter = new PatientFilter();
+        filter.setNric(nric);
+        filter.setGender(gender);
+        try {
+            if (age != null) {
+                String[] bounds = RANGE_SEPARATOR.split(age, 2);
+                int minAge = Integer.parseInt(bounds[0].trim());
+                int maxAge = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : minAge;
+                if (minAge < 0 || minAge > maxAge || maxAge > MAX_AGE) {
+                    throw new InvalidInputFormatException("Invalid age range! The minimum age must be between 0 "
+                            + "and the maximum age, which can be at most " + MAX_AGE + ".");
+                }
+                filter.setAgeRange(minAge, maxAge);
+            }
+            if (birthYear != null) {
+                int year = Integer.parseInt(birthYear.trim());
+                int currentYear = LocalDate.now().getYear();
+                if (year < MIN_BIRTH_YEAR || year > currentYear) {
+                    throw new InvalidInputFormatException("Invalid year of birth! Use a year from " + MIN_BIRTH_YEAR
+                            + " to " + currentYear + ".");
+                }
+                filter.setBirthYear(year);
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidInputFormatException("Invalid filter! Use: list-patient [ic/NRIC] [age/MIN-MAX] "
+                    + "[yob/YEAR] [g/GENDER] [offset/N] [limit/N]");
+        }
+        filter.setOffset(parseCount(arguments.get("offset/"), "offset", 0));
+        filter.setLimit(parseCount(arguments.get("limit/"), "limit", Integer.MAX_VALUE));
+        return filter;
+    }
+
+    public static AppointmentFilter parseListAppointment(String input) throws InvalidInputFormatException {
+        return parseAppointmentFilter(removeCommandWord(input, "list-appointment"));
+    }
+
+    // Bulk commands change every matching appointment, so at least one filter is required
+    private static AppointmentFilter parseBulkAppointment(String input, String commandWord)
+            throws InvalidInputFormatException {
+        AppointmentFilter filter = parseAppointmentFilter(removeCommandWord(input, commandWord));
+        if (!filter.hasCriteria()) {
+            throw new InvalidInputFormatException("Please choose the appointments with at least one filter! Use: "
+                    + commandWord + " [ic/NRIC] [st/done or st/undone] [mth/yyyy-MM] [dt/DATE] [from/DATE] "
+                    + "[to/DATE] [g/GENDER]");
+        }
+        return filter;
+    }
+
+    private static AppointmentFilter parseAppointmentFilter(String temp) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
+        String status = arguments.get("st/");
+        String month = arguments.get("mth/");
+        String date = arguments.get("dt/");
+        String from = arguments.get("from/");
+        String to = arguments.get("to/");
+
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setNric(arguments.get("ic/"));
+        filter.setGender(arguments.get("g/"));
+
+        if (status != null) {
+            switch (status.toLowerCase()) {
+            case "done":
+                filter.setIsDone(true);
+                break;
+            case "undone":
+                filter.setIsDone(false);
+                break;
+            default:
+                throw new InvalidInputFormatException("Invalid status! Use: st/done or st/undone");
+            }
+        }
+
+        try {
+            if (month != null) {
+                filter.setMonth(YearMonth.parse(month));
+            }
+            if (date != null) {
+                LocalDate day = LocalDate.parse(date);
+                filter.setDateRange(day, day);
+            } else if (from != null || to != null) {
+                filter.setDateRange(from == null ? null : LocalDate.parse(from),
+                        to == null ? null : LocalDate.parse(to));
+            }
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date! Use: mth/yyyy-MM, dt/yyyy-MM-dd, "
+                    + "from/yyyy-MM-dd and to/yyyy-MM-dd");
+        }
+        filter.setOffset(parseCount(arguments.get("offset/"), "offset", 0));
+        filter.setLimit(parseCount(arguments.get("limit/"), "limit", Integer.MAX_VALUE));
+        return filter;
+    }
+
+    private static int parseCount(String value, String name, int defaultValue) throws InvalidInputFormatException {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int count = Integer.parseInt(value.trim());
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with negative counts
+        }
+        throw new InvalidInputFormatException("Invalid " + name + "! It must be a whole number of at least 0.");
+    }
+
     private static String parseDeletePatient(String input) throws InvalidInputFormatException {
         if (input.length() < 15) {
             throw new InvalidInputFormatException("Invalid command format. Use: delete-patient NRIC");
@@ -121,30 +303,52 @@ public class Parser {
         return nric;
     }
 
-    private static String parseViewPatient(String input) throws InvalidInputFormatException {
+    private static String[] parseViewPatient(String input) throws InvalidInputFormatException {
         if (input.length() < 13) {
-            throw new InvalidInputFormatException("Invalid command format. Use: view-patient NRIC");
+            throw new InvalidInputFormatException("Invalid command format. Use: view-patient NRIC "
+                    + "or view-patient sl/NAME");
         }
 
-        String nric = input.substring(13).trim(); // Extract and trim NRIC
-        return nric;
+        String detail = input.substring(13).trim(); // Extract and trim NRIC
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(detail);
+        if (detail.toLowerCase().startsWith("sl/")) {
+            String name = arguments.get("sl/");
+            if (name == null) {
+                throw new InvalidInputFormatException("Invalid command format. Use: view-patient sl/NAME");
+            }
+            return new String[]{"sl", name};
+        }
+        return new String[]{"ic", detail};
+    }
+
+    private static String parseFindPatient(String input) throws InvalidInputFormatException {
+        String name = removeCommandWord(input, "find-patient").trim();
+        if (name.isEmpty()) {
+            throw new InvalidInputFormatException("Invalid format! Use: find-patient NAME");
+        }
+        return name;
     }
 
     public static String[] parseViewHistory(String input) throws InvalidInputFormatException {
         // Remove the command prefix "view-history" (case-insensitive) and get the remaining string.
-        String temp = input.replaceFirst("(?i)view-history\\s*", "");
+        String temp = removeCommandWord(input, "view-history");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
         String type;
         String nameOrIc;
 
         // Check if the remaining string starts with "ic/" or "n/" (case-insensitive).
         if (temp.toLowerCase().startsWith("ic/")) {
             type = "ic";
-            // Extract the real content after "ic/" using extractValue(...)
-            nameOrIc = extractValue(temp, "ic/");
+            // Extract the real content after "ic/" from the tokenized arguments
+            nameOrIc = arguments.get("ic/");
+        } else if (temp.toLowerCase().startsWith("sl/")) {
+            // "sl/" (sounds like) matches names by how they are pronounced
+            type = "sl";
+            nameOrIc = arguments.get("sl/");
         } else {
             // If there's no explicit prefix, try to detect NRIC vs. name.
             // Uses a simple regex matching a 9-character format: e.g., S1234567A
-            if (temp.matches("^[A-Za-z]\\d{7}[A-Za-z]$")) {
+            if (NRIC_FORMAT.matcher(temp).matches()) {
                 type = "ic";
                 nameOrIc = temp.trim();
             } else {
@@ -156,7 +360,8 @@ public class Parser {
 
         // Return null if the parsed value is null or empty
         if (nameOrIc == null || nameOrIc.isEmpty()) {
-            throw new InvalidInputFormatException("Invalid format. Please use: view-history NRIC or view-history NAME");
+            throw new InvalidInputFormatException("Invalid format. Please use: view-history NRIC, "
+                    + "view-history NAME or view-history sl/NAME");
         }
 
         // Return the result as [type, value]
@@ -166,12 +371,13 @@ public class Parser {
     public static String[] parseStoreHistory(String input) throws InvalidInputFormatException {
         // Remove the command prefix "store-history" (case-insensitive)
         // and get the remaining string.
-        String temp = input.replaceFirst("(?i)store-history\\s*", "");
+        String temp = removeCommandWord(input, "store-history");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
 
         // Extract n/NAME, ic/NRIC, and h/MEDICAL_HISTORY from the remaining string
-        String name = extractValue(temp, "n/");
-        String nric = extractValue(temp, "ic/");
-        String medHistory = extractValue(temp, "h/");
+        String name = arguments.get("n/");
+        String nric = arguments.get("ic/");
+        String medHistory = arguments.get("h/");
 
         // If any part is missing, return null to indicate a parse failure
         if (name == null || nric == null || medHistory == null) {
@@ -184,39 +390,249 @@ public class Parser {
     }
 
     public static Appointment parseAddAppointment(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)add-appointment\\s+", "");
-        String nric = extractValue(temp, "ic/");
-        String date = extractValue(temp, "dt/");
-        String time = extractValue(temp, "t/");
-        String desc = extractValue(temp, "dsc/");
+        String temp = removeCommandWord(input, "add-appointment");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
+        String nric = arguments.get("ic/");
+        String date = arguments.get("dt/");
+        String time = arguments.get("t/");
+        String desc = parseDescription(arguments.get("dsc/"));
+        String minutes = arguments.get("dur/");
+        String doctor = parseResourceName(arguments.get("doc/"));
+        String room = parseResourceName(arguments.get("rm/"));
 
         if (nric == null || date == null || time == null || desc == null) {
             String msg = "Missing details or wrong format for add-appointment!" + System.lineSeparator()
-                    + "Please use: add-appointment ic/NRIC dt/DATE t/TIME dsc/DESCRIPTION";
+                    + "Please use: add-appointment ic/NRIC dt/DATE t/TIME dsc/DESCRIPTION [dur/MINUTES] "
+                    + "[doc/DOCTOR] [rm/ROOM]";
             throw new InvalidInputFormatException(msg);
         }
+        Duration duration = minutes == null ? Appointment.DEFAULT_DURATION : parseDuration(minutes);
 
         try {
             String combined = date.trim() + " " + time.trim();
             LocalDateTime dateTime = LocalDateTime.parse(combined, INPUT_FORMAT);
-            return new Appointment(nric.trim(), dateTime, desc.trim());
+            return new Appointment(nric.trim(), dateTime, desc.trim(), duration, doctor, room);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date/time format. Please use: dt/yyyy-MM-dd and t/HHmm");
+        }
+    }
+
+    // Names are saved between | separators, so they cannot contain one
+    private static String parseResourceName(String name) throws InvalidInputFormatException {
+        if (name != null && name.contains("|")) {
+            throw new InvalidInputFormatException("Doctor and room names cannot contain '|'.");
+        }
+        return name;
+    }
+
+    // The duration, doctor and room are saved after the description, so it cannot contain a | either
+    private static String parseDescription(String description) throws InvalidInputFormatException {
+        if (description != null && description.contains("|")) {
+            throw new InvalidInputFormatException("Descriptions cannot contain '|'.");
+        }
+        return description;
+    }
+
+    private static Duration parseDuration(String minutes) throws InvalidInputFormatException {
+        try {
+            long value = Long.parseLong(minutes.trim());
+            if (value > 0 && value <= MAX_APPOINTMENT_MINUTES) {
+                return Duration.ofMinutes(value);
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with out of range values
+        }
+        throw new InvalidInputFormatException("Invalid duration! Use dur/MINUTES with a whole number from 1 to "
+                + MAX_APPOINTMENT_MINUTES + ".");
+    }
+
+    // Without a date the search starts now, and with a date but no time it starts when the clinic opens
+    private static SlotRequest parseNextSlot(String input) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(removeCommandWord(input, "next-slot"));
+        String nric = arguments.get("ic/");
+        String date = arguments.get("dt/");
+        String time = arguments.get("t/");
+        String minutes = arguments.get("dur/");
+        if (nric == null || (time != null && date == null)) {
+            throw new InvalidInputFormatException("Invalid format! Use: next-slot ic/NRIC [dt/DATE [t/TIME]] "
+                    + "[dur/MINUTES] [doc/DOCTOR] [rm/ROOM] [limit/N]");
+        }
+
+        LocalDateTime earliest;
+        try {
+            if (date == null) {
+                earliest = LocalDateTime.now();
+            } else if (time == null) {
+                earliest = LocalDate.parse(date).atTime(SlotRequest.CLINIC_OPENS);
+            } else {
+                earliest = LocalDateTime.parse(date + " " + time, INPUT_FORMAT);
+            }
         } catch (DateTimeParseException e) {
             throw new InvalidInputFormatException("Invalid date/time format. Please use: dt/yyyy-MM-dd and t/HHmm");
         }
+        Duration duration = minutes == null ? Appointment.DEFAULT_DURATION : parseDuration(minutes);
+        int count = parseCount(arguments.get("limit/"), "limit", 1);
+        if (count == 0 || count > MAX_SLOTS_SHOWN) {
+            throw new InvalidInputFormatException("Invalid limit! Ask for 1 to " + MAX_SLOTS_SHOWN + " slots.");
+        }
+        return new SlotRequest(nric.toUpperCase(), earliest, duration, count,
+                parseResourceName(arguments.get("doc/")), parseResourceName(arguments.get("rm/")));
+    }
+
+    private static ScheduleQuery parseViewSchedule(String input) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(removeCommandWord(input, "view-schedule"));
+        String date = arguments.get("dt/");
+        try {
+            LocalDate day = date == null ? LocalDate.now() : LocalDate.parse(date);
+            return parseScheduleOwner(arguments, day, day, "view-schedule (doc/DOCTOR | rm/ROOM | ic/NRIC) [dt/DATE]");
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date! Use: dt/yyyy-MM-dd");
+        }
+    }
+
+    private static ScheduleQuery parseUtilisation(String input) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(removeCommandWord(input, "utilisation"));
+        String from = arguments.get("from/");
+        String to = arguments.get("to/");
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from == null ? LocalDate.now() : LocalDate.parse(from);
+            toDate = to == null ? fromDate : LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date! Use: from/yyyy-MM-dd and to/yyyy-MM-dd");
+        }
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_SCHEDULE_DAYS) {
+            throw new InvalidInputFormatException("Invalid date range! to/ must be on or after from/, and at most "
+                    + MAX_SCHEDULE_DAYS + " days later.");
+        }
+        return parseScheduleOwner(arguments, fromDate, toDate,
+                "utilisation (doc/DOCTOR | rm/ROOM | ic/NRIC) [from/DATE] [to/DATE]");
+    }
+
+    // Exactly one of doc/, rm/ and ic/ names whose schedule is wanted
+    private static ScheduleQuery parseScheduleOwner(Map<String, String> arguments, LocalDate from, LocalDate to,
+                                                    String usage) throws InvalidInputFormatException {
+        String doctor = arguments.get("doc/");
+        String room = arguments.get("rm/");
+        String nric = arguments.get("ic/");
+        int given = (doctor == null ? 0 : 1) + (room == null ? 0 : 1) + (nric == null ? 0 : 1);
+        if (given != 1) {
+            throw new InvalidInputFormatException("Please name exactly one doctor, room or patient! Use: " + usage);
+        }
+        if (doctor != null) {
+            return new ScheduleQuery(Resource.DOCTOR, doctor, from, to);
+        } else if (room != null) {
+            return new ScheduleQuery(Resource.ROOM, room, from, to);
+        }
+        return new ScheduleQuery(Resource.PATIENT, nric.toUpperCase(), from, to);
+    }
+
+    // The series ends after times/ visits, or with the last visit on or before until/
+    private static RecurringAppointment parseAddRecurring(String input) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(removeCommandWord(input, "add-recurring"));
+        String nric = arguments.get("ic/");
+        String date = arguments.get("dt/");
+        String time = arguments.get("t/");
+        String desc = parseDescription(arguments.get("dsc/"));
+        String repeat = arguments.get("rep/");
+        String times = arguments.get("times/");
+        String until = arguments.get("until/");
+        String minutes = arguments.get("dur/");
+        if (nric == null || date == null || time == null || desc == null || repeat == null
+                || (times == null) == (until == null)) {
+            throw new InvalidInputFormatException("Missing details or wrong format for add-recurring!"
+                    + System.lineSeparator() + "Please use: add-recurring ic/NRIC dt/DATE t/TIME dsc/DESCRIPTION "
+                    + "rep/(daily|weekly|monthly) (times/COUNT | until/DATE) [every/N] [dur/MINUTES] "
+                    + "[doc/DOCTOR] [rm/ROOM]");
+        }
+
+        RecurringAppointment.Frequency frequency;
+        try {
+            frequency = RecurringAppointment.Frequency.valueOf(repeat.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputFormatException("Invalid repeat! Use: rep/daily, rep/weekly or rep/monthly");
+        }
+        int every = parseCount(arguments.get("every/"), "every", 1);
+        if (every == 0 || every > MAX_RECURRENCE_GAP) {
+            throw new InvalidInputFormatException("Invalid gap! Use every/N with N from 1 to "
+                    + MAX_RECURRENCE_GAP + ".");
+        }
+        Duration duration = minutes == null ? Appointment.DEFAULT_DURATION : parseDuration(minutes);
+
+        LocalDateTime start;
+        int occurrences;
+        try {
+            start = LocalDateTime.parse(date.trim() + " " + time.trim(), INPUT_FORMAT);
+            occurrences = times != null ? parseCount(times, "times", 0)
+                    : RecurringAppointment.countUntil(start, frequency, every, LocalDate.parse(until));
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date/time format. Please use: dt/yyyy-MM-dd, t/HHmm "
+                    + "and until/yyyy-MM-dd");
+        }
+        if (occurrences == 0 || occurrences > RecurringAppointment.MAX_OCCURRENCES) {
+            throw new InvalidInputFormatException("A recurring appointment needs 1 to "
+                    + RecurringAppointment.MAX_OCCURRENCES + " visits. Check times/ or until/.");
+        }
+        return new RecurringAppointment(nric.trim().toUpperCase(), start, desc.trim(), duration,
+                parseResourceName(arguments.get("doc/")), parseResourceName(arguments.get("rm/")),
+                frequency, every, occurrences);
+    }
+
+    private static String parseDeleteRecurring(String input) throws InvalidInputFormatException {
+        if (!DELETE_RECURRING_FORMAT.matcher(input.trim()).matches()) {
+            throw new InvalidInputFormatException("Invalid format! Please use: delete-recurring RECURRING_ID");
+        }
+        return removeCommandWord(input, "delete-recurring").trim();
+    }
+
+    // Without dates the visits of the next 30 days are listed
+    private static AppointmentFilter parseListRecurring(String input) throws InvalidInputFormatException {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(removeCommandWord(input, "list-recurring"));
+        String nric = arguments.get("ic/");
+        String from = arguments.get("from/");
+        String to = arguments.get("to/");
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from == null ? LocalDate.now() : LocalDate.parse(from);
+            toDate = to == null ? fromDate.plusDays(DEFAULT_RECURRING_DAYS) : LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid date! Use: from/yyyy-MM-dd and to/yyyy-MM-dd");
+        }
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_SCHEDULE_DAYS) {
+            throw new InvalidInputFormatException("Invalid date range! to/ must be on or after from/, and at most "
+                    + MAX_SCHEDULE_DAYS + " days later.");
+        }
+        AppointmentFilter filter = new AppointmentFilter();
+        if (nric != null) {
+            filter.setNric(nric.toUpperCase());
+        }
+        filter.setDateRange(fromDate, toDate);
+        return filter;
+    }
+
+    private static LocalDate parseDay(String input) throws InvalidInputFormatException {
+        String date = removeCommandWord(input, "day").trim();
+        try {
+            return date.isEmpty() ? LocalDate.now() : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputFormatException("Invalid format! Please use: day yyyy-MM-dd");
+        }
     }
 
     public static String parseDeleteAppointment(String input) throws InvalidInputFormatException {
-        if (!input.matches("(?i)delete-appointment\\s+A\\d+")) {
+        if (!DELETE_APPOINTMENT_FORMAT.matcher(input).matches()) {
             throw new InvalidInputFormatException("Invalid format! Please use: " +
                     "delete-appointment APPOINTMENT_ID");
         }
 
-        String apptId = input.replaceFirst("(?i)delete-appointment\\s*", "").trim();
+        String apptId = removeCommandWord(input, "delete-appointment").trim();
         return apptId;
     }
 
     private static String parseSortAppointment(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)sort-appointment\\s*", "");
+        String temp = removeCommandWord(input, "sort-appointment");
 
         switch (temp.toLowerCase()) {
         case "bydate":
@@ -230,7 +646,7 @@ public class Parser {
     }
 
     private static String parseMarkAppointment(String input) throws InvalidInputFormatException {
-        String apptId = input.replaceFirst("(?i)mark-appointment\\s*", "").trim();
+        String apptId = removeCommandWord(input, "mark-appointment").trim();
         if (apptId.isEmpty()) {
             throw new InvalidInputFormatException("Invalid format! Use: mark-appointment APPOINTMENT_ID");
         }
@@ -238,7 +654,7 @@ public class Parser {
     }
 
     private static String parseUnmarkAppointment(String input) throws InvalidInputFormatException {
-        String apptId = input.replaceFirst("(?i)unmark-appointment\\s*", "").trim();
+        String apptId = removeCommandWord(input, "unmark-appointment").trim();
         if (apptId.isEmpty()) {
             throw new InvalidInputFormatException("Invalid format! Use: unmark-appointment APPOINTMENT_ID");
         }
@@ -246,95 +662,57 @@ public class Parser {
     }
 
     private static String parseFindAppointment(String input) throws InvalidInputFormatException {
-        String patientId = input.replaceFirst("(?i)find-appointment\\s*", "").trim();
+        String patientId = removeCommandWord(input, "find-appointment").trim();
         if (patientId.isEmpty()) {
             throw new InvalidInputFormatException("Invalid format! Use: find-appointment PATIENT_NRIC");
         }
         return patientId;
     }
 
-    private static String extractValue(String input, String prefix) {
-        assert prefix != null : "Prefix cannot be null";
-
-        String lowerInput = input.toLowerCase();
-        String lowerPrefix = prefix.toLowerCase();
-        int start = -1;
-
-        // Find the first occurrence of the prefix that is either at the start or come before blank space
-        // Ensure checks are not done at where the prefix can't fully fit
-        for (int i = 0; i <= lowerInput.length() - lowerPrefix.length(); i++) {
-            boolean isParamPrefixMatch = lowerInput.startsWith(lowerPrefix, i);
-            // Check if the character before the prefix is blank space in input to have a valid input format
-            boolean isParamAtValidPosition = (i == 0) || Character.isWhitespace(input.charAt(i - 1));
-            if (isParamPrefixMatch && isParamAtValidPosition) {
-                start = i;
-                break;
-            }
+    // Drops the command word and the whitespace after it, as the arguments always follow it
+    private static String removeCommandWord(String input, String commandWord) {
+        if (!input.regionMatches(true, 0, commandWord, 0, commandWord.length())) {
+            return input;
         }
-
-        if (start < 0) {
-            return null;
+        int start = commandWord.length();
+        while (start < input.length() && Character.isWhitespace(input.charAt(start))) {
+            start++;
         }
-
-        start += prefix.length();
-        String[] possible = {
-            "n/", "ic/", "dob/", "g/", "p/", "a/", "dt/", "t/", 
-            "dsc/", "h/", "old/", "new/", "s/", "m/", "nt/"
-        };
-        int end = input.length();
-
-        // Determine where the current parameter's detail ends by finding the start of the next parameter
-        for (String p : possible) {
-            if (p.equalsIgnoreCase(prefix)) {
-                continue;
-            }
-            String lowerP = p.toLowerCase();
-            // Find the next occurrence of p that is either at the start or come before blank space
-            for (int i = start; i <= lowerInput.length() - lowerP.length(); i++) {
-                boolean isNextParamPrefixMatch = lowerInput.startsWith(lowerP, i);
-                // Check if the character before the prefix is blank space in input to have a valid input format
-                boolean isNextParamAtValidPosition = (i == 0) 
-                        || Character.isWhitespace(input.charAt(i - 1));
-                if (isNextParamPrefixMatch && isNextParamAtValidPosition) {
-                    if (i < end) {
-                        end = i;
-                    }
-                    break;
-                }
-            }
-        }
-
-        String detail = input.substring(start, end).trim();
-        return detail.isEmpty() ? null : detail;
+        return input.substring(start);
     }
 
     private static String[] parseEditPatient(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)edit-patient\\s*", "");
-        String nric = extractValue(temp, "ic/");
+        String temp = removeCommandWord(input, "edit-patient");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
+        String nric = arguments.get("ic/");
         if (nric == null) {
             throw new InvalidInputFormatException("Missing NRIC! Use: edit-patient ic/NRIC [n/NAME] " +
                     "[dob/BIRTHDATE] [g/GENDER] [a/ADDRESS] [p/PHONE]");
         }
-        String name = extractValue(temp, "n/");
-        String dob = extractValue(temp, "dob/");
-        String gender = extractValue(temp, "g/");
-        String address = extractValue(temp, "a/");
-        String phone = extractValue(temp, "p/");
+        String name = arguments.get("n/");
+        String dob = arguments.get("dob/");
+        if (dob != null) {
+            dob = parseDob(dob).toString();
+        }
+        String gender = arguments.get("g/");
+        String address = arguments.get("a/");
+        String phone = arguments.get("p/");
 
         return new String[]{nric, name, dob, gender, address, phone};
     }
 
     private static String[] parseEditHistory(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)edit-history\\s*", "");
+        String temp = removeCommandWord(input, "edit-history");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
 
-        String nric = extractValue(temp, "ic/");
+        String nric = arguments.get("ic/");
         if (nric == null) {
             throw new InvalidInputFormatException("Missing NRIC! Use: edit-history ic/NRIC " +
                     "old/OLD_HISTORY new/NEW_HISTORY");
         }
 
-        String oldHistory = extractValue(temp, "old/");
-        String newHistory = extractValue(temp, "new/");
+        String oldHistory = arguments.get("old/");
+        String newHistory = arguments.get("new/");
 
         if (oldHistory == null || newHistory == null) {
             throw new InvalidInputFormatException("Missing old or new history text! Use: edit-history " +
@@ -352,21 +730,36 @@ public class Parser {
 
         String id = tokens[0];
         String name = tokens[1];
-        String dob = tokens[2];
+        LocalDate dob = parseStoredDob(tokens[2]);
         String gender = tokens[3];
         String address = tokens[4];
         String contact = tokens[5];
         List<String> medHistory = Arrays.asList(tokens[6].split(","));
+        if (dob == null) {
+            return null;
+        }
 
         return new Patient(id, name, dob, gender, address, contact, medHistory);
     }
 
+    private static LocalDate parseStoredDob(String dob) {
+        try {
+            return LocalDate.parse(dob.trim());
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(dob.trim(), LEGACY_DOB_FORMAT);
+            } catch (DateTimeParseException legacyException) {
+                return null;
+            }
+        }
+    }
+
     public static Appointment parseLoadAppointment(String line) {
         if (line.startsWith("countId:")) {
             return null;
         }
 
-        String[] tokens = line.split("\\|");
+        String[] tokens = line.split("\\|", -1);
         if (tokens.length < 5) {
             return null;
         }
@@ -376,10 +769,25 @@ public class Parser {
             boolean isDone = tokens[1].equals("true");
             String nric = tokens[2].trim();
             String dateTimeStr = tokens[3].trim();
-            String desc = tokens[4].trim();
 
             LocalDateTime dateTime = LocalDateTime.parse(dateTimeStr, Appointment.OUTPUT_FORMAT);
-            Appointment appointment = new Appointment("A" + id, nric, dateTime, desc);
+            // The fields after the description are read from the end, so a | in a description saved before
+            // they were rejected stays part of it. Files saved before appointments had a duration end at it.
+            int end = tokens.length;
+            String doctor = null;
+            String room = null;
+            if (end >= 8 && isWholeNumber(tokens[end - 3])) {
+                doctor = tokens[end - 2].isBlank() ? null : tokens[end - 2].trim();
+                room = tokens[end - 1].isBlank() ? null : tokens[end - 1].trim();
+                end -= 2;
+            }
+            Duration duration = Appointment.DEFAULT_DURATION;
+            if (end >= 6 && isWholeNumber(tokens[end - 1])) {
+                duration = Duration.ofMinutes(Long.parseLong(tokens[end - 1].trim()));
+                end--;
+            }
+            String desc = String.join("|", Arrays.copyOfRange(tokens, 4, end)).trim();
+            Appointment appointment = new Appointment("A" + id, nric, dateTime, desc, duration, doctor, room);
             appointment.setIsDone(isDone);
 
             return appointment;
@@ -388,13 +796,18 @@ public class Parser {
         }
     }
 
+    private static boolean isWholeNumber(String token) {
+        return WHOLE_NUMBER.matcher(token.trim()).matches();
+    }
+
     public static Prescription parseAddPrescription(String input) throws InvalidInputFormatException {
-        String temp = input.replaceFirst("(?i)add-prescription\\s*", "");
+        String temp = removeCommandWord(input, "add-prescription");
+        Map<String, String> arguments = ArgumentTokenizer.tokenize(temp);
         
-        String patientId = extractValue(temp, "ic/");
-        String symptoms = extractValue(temp, "s/");
-        String medicines = extractValue(temp, "m/");
-        String notes = extractValue(temp, "nt/");
+        String patientId = arguments.get("ic/");
+        String symptoms = arguments.get("s/");
+        String medicines = arguments.get("m/");
+        String notes = arguments.get("nt/");
 
         if (patientId == null || symptoms == null || medicines == null) {
             String msg = "Missing details or wrong format for add-prescription!" + System.lineSeparator()
@@ -405,7 +818,7 @@ public class Parser {
         // Split symptoms by comma
         List<String> symptomsList = new ArrayList<>();
         if (symptoms != null && !symptoms.trim().isEmpty()) {
-            String[] entries = symptoms.split(",\\s*");
+            String[] entries = LIST_SEPARATOR.split(symptoms);
             for (String entry : entries) {
                 symptomsList.add(entry.trim());
             }
@@ -414,7 +827,7 @@ public class Parser {
         // Split medicines by comma
         List<String> medicinesList = new ArrayList<>();
         if (medicines != null && !medicines.trim().isEmpty()) {
-            String[] entries = medicines.split(",\\s*");
+            String[] entries = LIST_SEPARATOR.split(medicines);
             for (String entry : entries) {
                 medicinesList.add(entry.trim());
             }
@@ -1,8 +1,22 @@
 package miscellaneous;
 
 import manager.Appointment;
+import manager.AppointmentConflict;
 import manager.Patient;
+import manager.Prescription;
+import manager.RecurringAppointment;
+import manager.Renderer;
+import manager.ScheduleQuery;
+import manager.SlotRequest;
 
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Scanner;
@@ -10,57 +24,73 @@ import java.util.Scanner;
 public class Ui {
     public static final String DIVIDER = "-".repeat(100);
     public static final DateTimeFormatter OUTPUT_TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm a");
+    private static final DateTimeFormatter PRESCRIPTION_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     private final Scanner sc;
+    private final PrintWriter out;
 
     public Ui() {
-        sc = new Scanner(System.in);
+        this(System.in, System.out);
     }
 
-    public static void showLine() {
-        System.out.println(DIVIDER);
+    /**
+     * Creates a Ui reading commands from {@code in} and writing to {@code out}. Output is buffered and only
+     * sent when {@link #flush()} is called, which the command loop does once per command.
+     */
+    public Ui(InputStream in, OutputStream out) {
+        this.sc = new Scanner(in);
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)));
+    }
+
+    public void flush() {
+        out.flush();
+    }
+
+    public void showLine() {
+        out.println(DIVIDER);
     }
 
     public void showWelcome() {
         showLine();
-        System.out.println("Welcome to ClinicEase!");
-        System.out.println("Type a command, or 'bye' to exit.");
+        out.println("Welcome to ClinicEase!");
+        out.println("Type a command, or 'bye' to exit.");
         showLine();
     }
 
-    public static void showBye() {
+    public void showBye() {
         showLine();
-        System.out.println("Goodbye!");
+        out.println("Goodbye!");
         showLine();
     }
 
     public String readCommand() {
-        System.out.print("> ");
+        out.print("> ");
+        out.flush();
         return sc.nextLine().trim();
     }
 
     public void showError(String message) {
         showLine();
-        System.out.println(message);
+        out.println(message);
         showLine();
     }
 
     //@@author judHoka
-    public void showPatientAdded(List<Patient> patients) {
+    public void showPatientAdded(Patient patient) {
         showLine();
-        System.out.println("Patient added successfully: " + patients.get(patients.size() - 1).getName());
+        out.println("Patient added successfully: " + patient.getName());
         showLine();
     }
 
     public void showPatientDeleted(Patient removedPatient, String nric) {
         if (removedPatient == null) {
             showLine();
-            System.out.println("Patient with NRIC " + nric + " not found.");
+            out.println("Patient with NRIC " + nric + " not found.");
             showLine();
             return;
         }
         showLine();
-        System.out.println("Patient deleted successfully: " + removedPatient.getName());
+        out.println("Patient deleted successfully: " + removedPatient.getName());
         showLine();
     }
 
@@ -68,129 +98,521 @@ public class Ui {
     public void showPatientViewed(Patient matchedPatient, String nric) {
         if (matchedPatient == null) {
             showLine();
-            System.out.println("Patient with NRIC " + nric + " not found.");
+            out.println("Patient with NRIC " + nric + " not found.");
             showLine();
             return;
         }
-        System.out.println("-".repeat(42) + "Patient Details" + "-".repeat(42));
-        System.out.println(matchedPatient);
+        out.println("-".repeat(42) + "Patient Details" + "-".repeat(42));
+        out.print(matchedPatient.toString());
+        out.println();
         showLine();
     }
 
     //@@author judHoka
     public void showPatientList(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            showPatientListEmpty("");
+            return;
+        }
+
+        showPatientListHeader();
+
+        int count = 1;
+        for (Patient p : patients) {
+            showPatientListItem(count, p);
+            count++;
+        }
+    }
+
+    //@@author Basudeb2005
+    public void showPatientListHeader() {
+        out.println("-".repeat(42)+ "Patient Details" + "-".repeat(42));
+    }
+
+    public void showPatientListItem(int number, Patient patient) {
+        out.print(number);
+        out.print(". ");
+        out.print(patient.toStringForListView());
+        out.println();
+        showLine();
+    }
+
+    public void showPatientListEmpty(String criteria) {
+        showLine();
+        if (criteria.isEmpty()) {
+            out.println("No patients have been added.");
+        } else {
+            out.println("No patients found with " + criteria + ".");
+        }
+        showLine();
+    }
+
+    //@@author Basudeb2005
+    public void showPatientsFound(List<Patient> patients, String name) {
+        showMatchedPatients(patients, "a name similar to '" + name + "'");
+    }
+
+    public void showPatientsSoundingLike(List<Patient> patients, String name) {
+        showMatchedPatients(patients, "a name sounding like '" + name + "'");
+    }
+
+    private void showMatchedPatients(List<Patient> patients, String criteria) {
         if (patients.isEmpty()) {
             showLine();
-            System.out.println("No patients have been added.");
+            out.println("No patients found with " + criteria + ".");
             showLine();
             return;
         }
 
-        System.out.println("-".repeat(42)+ "Patient Details" + "-".repeat(42));
-
+        showLine();
+        out.println("Found " + patients.size() + " patient(s) with " + criteria + ":");
+        showLine();
         int count = 1;
         for (Patient p : patients) {
-            System.out.println(count + ". " + p.toStringForListView());
+            out.print(count);
+            out.print(". ");
+            out.print(p.toStringForListView());
+            out.println();
             showLine();
             count++;
         }
     }
 
     //@@author jyukuan
-    public static void showPatientHistory(Patient patient) {
-        System.out.println("Medical History for " + patient.getName() + " (NRIC: " + patient.getId() + "):");
+    public void showPatientHistory(Patient patient) {
+        out.println("Medical History for " + patient.getName() + " (NRIC: " + patient.getId() + "):");
         List<String> histories = patient.getMedicalHistory();
         if (histories.isEmpty()) {
-            System.out.println("No medical history recorded.");
+            out.println("No medical history recorded.");
         } else {
             for (String h : histories) {
-                System.out.println("- " + h);
+                out.println("- " + h);
             }
             showLine();
         }
     }
 
-    //@@author chwenyee
-    public void showAppointmentAdded(List<Appointment> appointments) {
-        Appointment currentAppointment = appointments.get(appointments.size() - 1);
+    public void showMedicalHistoryAdded(String name, String nric) {
+        showLine();
+        out.println("Medical history added for " + name + " (NRIC: " + nric + ").");
+        showLine();
+    }
+
+    public void showMedicalHistory(Patient patient, String nric) {
+        showLine();
+        if (patient == null) {
+            out.println("No patient/patients found with NRIC " + nric + ".");
+        } else {
+            showLine();
+            showPatientHistory(patient);
+        }
+    }
+
+    public void showMedicalHistories(List<Patient> foundPatients, String criteria) {
+        showLine();
+
+        if (foundPatients.isEmpty()) {
+            out.println("No patients found with " + criteria + ".");
+            showLine();
+        } else {
+            out.println("Found " + foundPatients.size() + " patient(s) with " + criteria);
+            for (Patient p : foundPatients) {
+                showPatientHistory(p);
+            }
+        }
+    }
 
+    public void showPatientEdited(Patient patient, String nric) {
+        if (patient == null) {
+            out.println("Patient with NRIC " + nric + " not found.");
+        } else {
+            out.println("Patient with NRIC " + nric + " updated successfully.");
+        }
+        showLine();
+        out.println("Edit-patient command executed.");
+        showLine();
+    }
+
+    public void showPatientHistoryEdited(Patient patient, String nric, String oldHistory, String newHistory,
+                                         boolean isReplaced) {
+        if (patient == null) {
+            out.println("Patient with NRIC " + nric + " not found.");
+        } else if (isReplaced) {
+            out.println("Replaced old history \"" + oldHistory + "\" with \"" + newHistory + "\".");
+        } else {
+            out.println("Old history \"" + oldHistory + "\" not found for patient " + patient.getName());
+        }
+        showLine();
+        out.println("Edit-history command executed.");
         showLine();
-        System.out.println("Appointment added for NRIC: " + currentAppointment.getNric() + " on "
+    }
+
+    //@@author chwenyee
+    public void showAppointmentAdded(Appointment currentAppointment, int appointmentCount) {
+        showLine();
+        out.println("Appointment added for NRIC: " + currentAppointment.getNric() + " on "
                 + currentAppointment.getDate() + " at " + currentAppointment.getTime().format(OUTPUT_TIME_FORMAT)
                 + ".");
-        System.out.println("Now you have " + appointments.size() + " appointment(s) in the list.");
+        out.println("Now you have " + appointmentCount + " appointment(s) in the list.");
         showLine();
     }
 
-    public void showAppointmentDeleted(List<Appointment> appointments, Appointment removedAppointment, String apptId) {
+    public void showAppointmentDeleted(int appointmentCount, Appointment removedAppointment, String apptId) {
         if (removedAppointment == null) {
             showLine();
-            System.out.println("No appointment found with ID: " + apptId + ".");
+            out.println("No appointment found with ID: " + apptId + ".");
             showLine();
             return;
         }
 
         showLine();
-        System.out.println("Appointment " + apptId + " is deleted successfully.");
-        System.out.println("Now you have " + appointments.size() + " appointment(s) in the list.");
+        out.println("Appointment " + apptId + " is deleted successfully.");
+        out.println("Now you have " + appointmentCount + " appointment(s) in the list.");
         showLine();
     }
 
     //@@author dylancmznus
-    public void showAppointmentMarked(List<Appointment> appointments, Appointment markedAppointment, String apptId) {
+    public void showAppointmentMarked(Appointment markedAppointment, String apptId) {
         if (markedAppointment == null) {
             showLine();
-            System.out.println("No appointment found with ID: " + apptId + ".");
+            out.println("No appointment found with ID: " + apptId + ".");
             showLine();
             return;
         }
 
         showLine();
-        System.out.println("Appointment " + apptId + " is marked successfully.");
+        out.println("Appointment " + apptId + " is marked successfully.");
         showLine();
     }
 
-    public void showAppointmentUnmarked(List<Appointment> appointments, Appointment markedAppointment, String apptId) {
+    public void showAppointmentUnmarked(Appointment markedAppointment, String apptId) {
         if (markedAppointment == null) {
             showLine();
-            System.out.println("No appointment found with ID: " + apptId + ".");
+            out.println("No appointment found with ID: " + apptId + ".");
             showLine();
             return;
         }
 
         showLine();
-        System.out.println("Appointment " + apptId + " is unmarked successfully.");
+        out.println("Appointment " + apptId + " is unmarked successfully.");
         showLine();
     }
 
     //@@author Basudeb2005
     public void showAppointmentList(List<Appointment> appointments) {
         if (appointments.isEmpty()) {
-            showLine();
-            System.out.println("No appointments found.");
-            showLine();
+            showAppointmentListEmpty();
             return;
         }
 
-        System.out.println("-".repeat(43)+ "Appointments" + "-".repeat(45));
+        showAppointmentListHeader();
         int count = 1;
         for (Appointment a : appointments) {
-            System.out.println(count + ". " + a);
+            showAppointmentListItem(count, a);
             count++;
         }
         showLine();
     }
 
+    public void showAppointmentListHeader() {
+        out.println("-".repeat(43)+ "Appointments" + "-".repeat(45));
+    }
+
+    public void showAppointmentListItem(int number, Appointment appointment) {
+        out.print(number);
+        out.print(". ");
+        out.print(appointment.toString());
+        out.println();
+    }
+
+    public void showAppointmentListEmpty() {
+        showLine();
+        out.println("No appointments found.");
+        showLine();
+    }
+
     //@@author dylancmznus
     public void showAppointmentFound(Appointment appointment, String nric) {
         if (appointment != null) {
             showLine();
-            System.out.println("Appointment found for NRIC " + nric + ": " + appointment);
+            out.println("Appointment found for NRIC " + nric + ": " + appointment);
+            showLine();
+        } else {
+            showLine();
+            out.println("No appointment found for NRIC " + nric);
+            showLine();
+        }
+    }
+
+    //@@author Basudeb2005
+    public void showPrescriptionAdded(Prescription prescription) {
+        showLine();
+        out.println("Successfully added prescription:");
+        Renderer.appendPrescription(out, prescription);
+        out.println();
+        out.println("");
+        out.println("Prescription has been generated.");
+        out.println("View the prescription for the patient with ID: " + prescription.getPatientId());
+        out.println("and prescription ID: " + prescription.getPrescriptionId());
+        showLine();
+    }
+
+    public void showPrescriptionDetails(Prescription prescription, String htmlPath) {
+        showLine();
+        out.println("Prescription details:");
+        Renderer.appendPrescription(out, prescription);
+        out.println();
+        out.println("");
+        out.println("Prescription HTML file generated at: " + htmlPath);
+        out.println("Open this file in a web browser to view and print the prescription.");
+        showLine();
+    }
+
+    public void showPrescriptionsForPatient(Patient patient, String patientId, List<Prescription> prescriptions) {
+        showLine();
+        if (prescriptions.isEmpty()) {
+            out.println("No prescriptions found for patient " + patient.getName() + " (" + patientId + ").");
+        } else {
+            out.println("Prescriptions for patient " + patient.getName() + " (" + patientId + "):");
+            out.println("");
+
+            for (Prescription prescription : prescriptions) {
+                out.println("Prescription ID: " + prescription.getPrescriptionId());
+                out.println("Date: " + prescription.getTimestamp().format(PRESCRIPTION_TIME_FORMAT));
+
+                out.println("Symptoms:");
+                for (String symptom : prescription.getSymptoms()) {
+                    out.println("- " + symptom);
+                }
+
+                out.println("Medicines:");
+                for (String medicine : prescription.getMedicines()) {
+                    out.println("- " + medicine);
+                }
+
+                out.println("Notes: " + prescription.getNotes());
+                out.println("");
+            }
+
+            out.println("Total prescriptions: " + prescriptions.size());
+            out.println("Use 'view-prescription PRESCRIPTION_ID' to view details and generate HTML.");
+        }
+        showLine();
+    }
+
+    public void showServerStarted(int port) {
+        showLine();
+        out.println("ClinicEase is serving front desk terminals on localhost:" + port);
+        out.println("Press Ctrl+C to stop the server.");
+        showLine();
+    }
+
+    public void showRemindersStarted(int hours, int pending) {
+        showLine();
+        out.println("Reminders are written to the outbox " + hours + " hour(s) before each appointment.");
+        out.println(pending + " reminder(s) are waiting to be sent.");
+        showLine();
+    }
+
+    public void showUnreadablePatients(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        showLine();
+        out.println(lines.size() + " stored patient(s) could not be read and are kept unchanged in the data file:");
+        for (String line : lines) {
+            out.println("  " + line);
+        }
+        showLine();
+    }
+
+    public void showApiStarted(int port) {
+        showLine();
+        out.println("HTTP API available at http://localhost:" + port + "/");
+        showLine();
+    }
+
+    public void showBatchSummary(int commands, int failed, double seconds) {
+        showLine();
+        out.printf("Ran %d command(s) with %d error(s) in %.2f s (%.0f commands/s)%n",
+                commands, failed, seconds, seconds > 0 ? commands / seconds : commands);
+        showLine();
+    }
+
+    public void showTransactionBegun() {
+        showLine();
+        out.println("Transaction started. Changes are saved at commit and undone at rollback.");
+        showLine();
+    }
+
+    public void showTransactionCommitted(int changes) {
+        showLine();
+        out.println("Transaction committed with " + changes + " change(s).");
+        showLine();
+    }
+
+    public void showTransactionRolledBack(int changes) {
+        showLine();
+        out.println("Transaction rolled back. " + changes + " change(s) undone.");
+        showLine();
+    }
+
+    public void showAppointmentsMarked(List<Appointment> changed, boolean isDone) {
+        String status = isDone ? "done" : "not done";
+        showLine();
+        if (changed.isEmpty()) {
+            out.println("No matching appointments needed to be marked as " + status + ".");
+            showLine();
+            return;
+        }
+        out.println("Marked " + changed.size() + " appointment(s) as " + status + ":");
+        showAppointmentItems(changed);
+        showLine();
+    }
+
+    public void showAppointmentsDeleted(List<Appointment> deleted, int appointmentCount) {
+        showLine();
+        if (deleted.isEmpty()) {
+            out.println("No matching appointments found.");
+            showLine();
+            return;
+        }
+        out.println("Deleted " + deleted.size() + " appointment(s):");
+        showAppointmentItems(deleted);
+        out.println("Now you have " + appointmentCount + " appointment(s) in the list.");
+        showLine();
+    }
+
+    private void showAppointmentItems(List<Appointment> appointments) {
+        int number = 1;
+        for (Appointment appointment : appointments) {
+            showAppointmentListItem(number++, appointment);
+        }
+    }
+
+    public void showConflicts(List<AppointmentConflict> conflicts) {
+        showLine();
+        if (conflicts.isEmpty()) {
+            out.println("No overlapping appointments found.");
+            showLine();
+            return;
+        }
+        out.println("Found " + conflicts.size() + " overlapping pair(s) of appointments:");
+        int number = 1;
+        for (AppointmentConflict conflict : conflicts) {
+            out.println(number++ + ". Both need " + conflict.getSharedBy() + ":");
+            out.println("   " + conflict.getFirst() + " (until " + endTimeOf(conflict.getFirst()) + ")");
+            out.println("   " + conflict.getSecond() + " (until " + endTimeOf(conflict.getSecond()) + ")");
+        }
+        showLine();
+    }
+
+    private static String endTimeOf(Appointment appointment) {
+        return appointment.getEndDateTime().format(Appointment.OUTPUT_FORMAT);
+    }
+
+    public void showFreeSlots(SlotRequest request, List<LocalDateTime> slots) {
+        long minutes = request.getDuration().toMinutes();
+        showLine();
+        if (slots.isEmpty()) {
+            out.println("No free " + minutes + "-minute slot found for " + request.getNric()
+                    + " within clinic hours in the next year.");
+            showLine();
+            return;
+        }
+        out.println("Free " + minutes + "-minute slot(s) for " + request.getNric() + ":");
+        int number = 1;
+        for (LocalDateTime start : slots) {
+            out.println(number++ + ". " + start.format(Appointment.OUTPUT_FORMAT) + " to "
+                    + start.plus(request.getDuration()).format(OUTPUT_TIME_FORMAT));
+        }
+        showLine();
+    }
+
+    public void showSchedule(ScheduleQuery query, List<Appointment> bookings, Duration booked) {
+        String owner = query.getKind().describe(query.getName());
+        showLine();
+        if (bookings.isEmpty()) {
+            out.println("No appointments for " + owner + " on " + query.getFrom() + ".");
             showLine();
+            return;
+        }
+        out.println("Schedule of " + owner + " on " + query.getFrom() + ":");
+        for (Appointment appointment : bookings) {
+            out.println(appointment.getTime().format(OUTPUT_TIME_FORMAT) + " to "
+                    + appointment.getEndDateTime().format(OUTPUT_TIME_FORMAT) + "  " + appointment);
+        }
+        out.printf("Booked %s of clinic hours (%.1f%%)%n", formatDuration(booked),
+                percentOf(booked, query.getOpenTime()));
+        showLine();
+    }
+
+    public void showUtilisation(ScheduleQuery query, Duration booked) {
+        Duration open = query.getOpenTime();
+        showLine();
+        out.printf("%s is booked for %s of %s of clinic hours from %s to %s (%.1f%%)%n",
+                capitalise(query.getKind().describe(query.getName())), formatDuration(booked), formatDuration(open),
+                query.getFrom(), query.getTo(), percentOf(booked, open));
+        showLine();
+    }
+
+    public void showRecurringAppointmentAdded(RecurringAppointment series) {
+        showLine();
+        out.println("Recurring appointment added:");
+        out.println(series);
+        out.println("The last visit is on " + series.getLastStart().format(Appointment.OUTPUT_FORMAT) + ".");
+        showLine();
+    }
+
+    public void showRecurringAppointmentDeleted(RecurringAppointment series, String seriesId) {
+        showLine();
+        if (series == null) {
+            out.println("No recurring appointment found with ID: " + seriesId + ".");
         } else {
+            out.println("Recurring appointment " + series.getId() + " and all its visits are deleted.");
+        }
+        showLine();
+    }
+
+    public void showRecurringOccurrences(LocalDate from, LocalDate to, List<Appointment> occurrences) {
+        showLine();
+        if (occurrences.isEmpty()) {
+            out.println("No recurring visits from " + from + " to " + to + ".");
             showLine();
-            System.out.println("No appointment found for NRIC " + nric);
+            return;
+        }
+        out.println("Recurring visits from " + from + " to " + to + ":");
+        int number = 1;
+        for (Appointment occurrence : occurrences) {
+            out.println(number++ + ". " + occurrence);
+        }
+        showLine();
+    }
+
+    public void showDay(LocalDate date, List<Appointment> appointments) {
+        showLine();
+        if (appointments.isEmpty()) {
+            out.println("No appointments on " + date + ".");
             showLine();
+            return;
+        }
+        out.println(appointments.size() + " appointment(s) on " + date + ":");
+        for (Appointment appointment : appointments) {
+            out.println(appointment.getTime().format(OUTPUT_TIME_FORMAT) + " to "
+                    + appointment.getEndDateTime().format(OUTPUT_TIME_FORMAT) + "  " + appointment);
         }
+        showLine();
+    }
+
+    private static String formatDuration(Duration duration) {
+        return duration.toHours() + "h " + duration.toMinutesPart() + "m";
+    }
+
+    private static double percentOf(Duration part, Duration whole) {
+        return whole.isZero() ? 0 : 100.0 * part.toMinutes() / whole.toMinutes();
+    }
+
+    private static String capitalise(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
     }
 }
@@ -0,0 +1,210 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exception.InvalidInputFormatException;
+import manager.AppointmentFilter;
+import manager.ManagementSystem;
+import manager.Patient;
+import manager.PatientFilter;
+import manager.Prescription;
+import miscellaneous.Parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+//@@author Basudeb2005
+/**
+ * Read-only JSON API over the shared {@link ManagementSystem} for other in-house tools.
+ * <ul>
+ *     <li>{@code GET /patients?ic=&age=&yob=&g=&offset=&limit=}</li>
+ *     <li>{@code GET /patients/NRIC}</li>
+ *     <li>{@code GET /appointments?ic=&st=&mth=&dt=&from=&to=&g=&offset=&limit=}</li>
+ *     <li>{@code GET /prescriptions/NRIC}</li>
+ * </ul>
+ * Query parameters take the same values as the matching list-patient and list-appointment prefixes.
+ * Lists are streamed with chunked encoding as the records are found, and connections are kept alive.
+ */
+public class ApiServer implements AutoCloseable {
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final ManagementSystem manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(ManagementSystem manager, int port) throws IOException {
+        assert manager != null : "Manager cannot be null";
+        this.manager = manager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = CommandServer.newSessionExecutor();
+        server.setExecutor(executor);
+        server.createContext("/patients", this::handlePatients);
+        server.createContext("/appointments", this::handleAppointments);
+        server.createContext("/prescriptions", this::handlePrescriptions);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handlePatients(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String nric = pathArgument(exchange, "/patients");
+            if (nric != null) {
+                PatientFilter filter = new PatientFilter();
+                filter.setNric(nric);
+                List<Patient> found = manager.findPatients(filter, LocalDate.now());
+                if (found.isEmpty()) {
+                    sendError(exchange, 404, "Patient with NRIC " + nric + " not found");
+                } else {
+                    sendObject(exchange, JsonFormat.appendPatient(new StringBuilder(), found.get(0)));
+                }
+                return;
+            }
+            PatientFilter filter = Parser.parseListPatient(toCommand("list-patient", exchange));
+            streamArray(exchange, out -> manager.forEachPatient(filter, LocalDate.now(), out),
+                    JsonFormat::appendPatient);
+        });
+    }
+
+    private void handleAppointments(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (pathArgument(exchange, "/appointments") != null) {
+                sendError(exchange, 404, "Unknown resource " + exchange.getRequestURI().getPath());
+                return;
+            }
+            AppointmentFilter filter = Parser.parseListAppointment(toCommand("list-appointment", exchange));
+            streamArray(exchange, out -> manager.forEachAppointment(filter, out), JsonFormat::appendAppointment);
+        });
+    }
+
+    private void handlePrescriptions(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String nric = pathArgument(exchange, "/prescriptions");
+            if (nric == null) {
+                sendError(exchange, 404, "Use /prescriptions/NRIC");
+                return;
+            }
+            List<Prescription> prescriptions = manager.getPrescriptionsForPatient(nric.toUpperCase());
+            streamArray(exchange, out -> prescriptions.forEach(out), JsonFormat::appendPrescription);
+        });
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            try {
+                handler.handle();
+            } catch (InvalidInputFormatException e) {
+                sendError(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    // Rebuilds the CLI form of the query, e.g. ?age=60-70&g=F becomes "list-patient age/60-70 g/F"
+    private static String toCommand(String command, HttpExchange exchange) {
+        StringBuilder input = new StringBuilder(command);
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return input.toString();
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                String name = URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8);
+                String value = URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+                input.append(' ').append(name).append('/').append(value);
+            }
+        }
+        return input.toString();
+    }
+
+    private static String pathArgument(HttpExchange exchange, String context) {
+        String rest = exchange.getRequestURI().getPath().substring(context.length());
+        if (rest.isEmpty() || rest.equals("/")) {
+            return null;
+        }
+        return rest.substring(1);
+    }
+
+    private static <T> void streamArray(HttpExchange exchange, Consumer<Consumer<T>> source,
+                                        Appender<T> appender) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.UTF_8));
+        StringBuilder element = new StringBuilder();
+        boolean[] isFirst = {true};
+        out.write('[');
+        try {
+            source.accept(item -> {
+                element.setLength(0);
+                if (!isFirst[0]) {
+                    element.append(',');
+                }
+                isFirst[0] = false;
+                appender.append(element, item);
+                try {
+                    out.append(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write(']');
+        out.flush();
+    }
+
+    private static void sendObject(HttpExchange exchange, CharSequence json) throws IOException {
+        send(exchange, 200, json);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, JsonFormat.appendError(new StringBuilder(), message));
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private interface Handler {
+        void handle() throws IOException, InvalidInputFormatException;
+    }
+
+    private interface Appender<T> {
+        StringBuilder append(StringBuilder json, T item);
+    }
+}
@@ -0,0 +1,89 @@
+package server;
+
+import manager.ManagementSystem;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//@@author Basudeb2005
+/**
+ * Serves the ClinicEase command line to several terminals at once over a local socket. Every connection
+ * gets its own {@link Session} on its own thread, and all sessions share one {@link ManagementSystem}.
+ */
+public class CommandServer implements AutoCloseable {
+    private final ManagementSystem manager;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    public CommandServer(ManagementSystem manager, int port) throws IOException {
+        assert manager != null : "Manager cannot be null";
+        this.manager = manager;
+        // One session's transaction would take in, and could roll back, the writes of every other session
+        manager.setShared(true);
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.sessions = newSessionExecutor();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                sessions.execute(() -> {
+                    try {
+                        new Session(socket, manager).run();
+                    } finally {
+                        openSockets.remove(socket);
+                    }
+                });
+            } catch (SocketException e) {
+                if (!serverSocket.isClosed()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        // Closing the sockets unblocks sessions waiting for their next command
+        for (Socket socket : openSockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed by the other side
+            }
+        }
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Returns an executor running each task on a new virtual thread where the runtime has them (Java 21+),
+     * or on a pooled platform thread otherwise, since sessions spend nearly all their time waiting on input.
+     */
+    public static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package server;
+
+import manager.Appointment;
+import manager.Patient;
+import manager.Prescription;
+
+import java.util.List;
+
+//@@author Basudeb2005
+/**
+ * Writes records as JSON objects. Each record is appended on its own, so lists can be sent one element
+ * at a time instead of being built as one large document.
+ */
+public class JsonFormat {
+
+    public static StringBuilder appendPatient(StringBuilder json, Patient patient) {
+        json.append("{\"nric\":");
+        appendString(json, patient.getId());
+        json.append(",\"name\":");
+        appendString(json, patient.getName());
+        json.append(",\"dob\":");
+        appendString(json, patient.getDob().toString());
+        json.append(",\"gender\":");
+        appendString(json, patient.getGender());
+        json.append(",\"phone\":");
+        appendString(json, patient.getContactInfo());
+        json.append(",\"address\":");
+        appendString(json, patient.getAddress());
+        json.append(",\"medicalHistory\":");
+        appendStrings(json, patient.getMedicalHistory());
+        return json.append('}');
+    }
+
+    public static StringBuilder appendAppointment(StringBuilder json, Appointment appointment) {
+        json.append("{\"id\":");
+        appendString(json, appointment.getId());
+        json.append(",\"nric\":");
+        appendString(json, appointment.getNric());
+        json.append(",\"dateTime\":");
+        appendString(json, appointment.getDateTime().toString());
+        json.append(",\"description\":");
+        appendString(json, appointment.getDescription());
+        json.append(",\"done\":").append(appointment.isDone());
+        json.append(",\"minutes\":").append(appointment.getDuration().toMinutes());
+        json.append(",\"doctor\":");
+        appendString(json, appointment.getDoctor());
+        json.append(",\"room\":");
+        appendString(json, appointment.getRoom());
+        return json.append('}');
+    }
+
+    public static StringBuilder appendPrescription(StringBuilder json, Prescription prescription) {
+        json.append("{\"id\":");
+        appendString(json, prescription.getPrescriptionId());
+        json.append(",\"nric\":");
+        appendString(json, prescription.getPatientId());
+        json.append(",\"timestamp\":");
+        appendString(json, prescription.getTimestamp().toString());
+        json.append(",\"symptoms\":");
+        appendStrings(json, prescription.getSymptoms());
+        json.append(",\"medicines\":");
+        appendStrings(json, prescription.getMedicines());
+        json.append(",\"notes\":");
+        appendString(json, prescription.getNotes());
+        return json.append('}');
+    }
+
+    public static StringBuilder appendError(StringBuilder json, String message) {
+        json.append("{\"error\":");
+        appendString(json, message);
+        return json.append('}');
+    }
+
+    private static void appendStrings(StringBuilder json, List<String> values) {
+        json.append('[');
+        boolean isFirst = true;
+        for (String value : values) {
+            if (!isFirst) {
+                json.append(',');
+            }
+            appendString(json, value);
+            isFirst = false;
+        }
+        json.append(']');
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,65 @@
+package server;
+
+import command.Command;
+import exception.DuplicatePatientIDException;
+import exception.InvalidInputFormatException;
+import exception.UnknownCommandException;
+import exception.UnloadedStorageException;
+import manager.ManagementSystem;
+import miscellaneous.Parser;
+import miscellaneous.Ui;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+
+//@@author Basudeb2005
+/**
+ * One front desk connected to the server. Reads commands line by line from the socket and runs them
+ * against the shared manager, with the output of each command flushed back over the same socket once it finishes.
+ */
+public class Session implements Runnable {
+    private final Socket socket;
+    private final ManagementSystem manager;
+
+    public Session(Socket socket, ManagementSystem manager) {
+        this.socket = socket;
+        this.manager = manager;
+    }
+
+    @Override
+    public void run() {
+        try (socket) {
+            Ui ui = new Ui(socket.getInputStream(), socket.getOutputStream());
+            ui.showWelcome();
+            boolean running = true;
+            while (running) {
+                try {
+                    String input = ui.readCommand();
+                    Command command = Parser.parse(input);
+                    command.execute(manager, ui);
+                    running = !command.isExit();
+                } catch (InvalidInputFormatException | UnknownCommandException | DuplicatePatientIDException |
+                         UnloadedStorageException | IllegalArgumentException | IllegalStateException e) {
+                    ui.showError(e.getMessage());
+                }
+                ui.flush();
+            }
+        } catch (NoSuchElementException | IOException e) {
+            // The terminal disconnected; nothing is left to send to it
+        } finally {
+            rollBackOpenTransaction();
+        }
+    }
+
+    // A transaction left open by a dropped terminal would hold back the saves of every other session
+    private void rollBackOpenTransaction() {
+        try {
+            if (manager.isInTransaction()) {
+                manager.rollbackTransaction();
+            }
+        } catch (UnloadedStorageException | IllegalArgumentException e) {
+            // Nothing was open any more, or the saves failed and will be tried again with the next change
+        }
+    }
+}
@@ -4,15 +4,24 @@ import exception.UnloadedStorageException;
 import manager.Appointment;
 import manager.Patient;
 import manager.Prescription;
+import manager.RecurringAppointment;
 import miscellaneous.Parser;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
 
 public class Storage {
     private static String directoryPath;
@@ -20,6 +29,15 @@ public class Storage {
     private static String appointmentFilePath;
     private static String prescriptionFilePath;
     private static String prescriptionDirPath;
+    private static String recurringFilePath;
+    private static String outboxFilePath;
+    private static volatile boolean isDeferringSaves;
+    private static List<Patient> pendingPatients;
+    private static List<Appointment> pendingAppointments;
+    private static List<Prescription> pendingPrescriptions;
+    private static List<RecurringAppointment> pendingRecurring;
+    // Stored patient lines that could not be read, written back as they are so saving never loses them
+    private static List<String> unreadablePatientLines = new ArrayList<>();
 
     public Storage(String directory) {
         directoryPath = directory;
@@ -27,12 +45,19 @@ public class Storage {
         appointmentFilePath = directory + File.separator + "appointment_data.txt";
         prescriptionFilePath = directory + File.separator + "prescription_data.txt";
         prescriptionDirPath = directory + File.separator + "prescriptions";
+        recurringFilePath = directory + File.separator + "recurring_data.txt";
+        outboxFilePath = directory + File.separator + "reminder_outbox.txt";
+        unreadablePatientLines = new ArrayList<>();
     }
 
     public static void savePatients(List<Patient> patientList) throws UnloadedStorageException {
         if (directoryPath == null || patientFilePath == null) {
             throw new UnloadedStorageException("Storage not initialized with a directory!");
         }
+        if (isDeferringSaves) {
+            pendingPatients = patientList;
+            return;
+        }
 
         File dir = new File(directoryPath);
         if (!dir.exists()) {
@@ -44,6 +69,10 @@ public class Storage {
                 writer.write(patient.toFileFormat());
                 writer.newLine();
             }
+            for (String line : unreadablePatientLines) {
+                writer.write(line);
+                writer.newLine();
+            }
         } catch (IOException e) {
             throw new UnloadedStorageException("Unable to save the patient!");
         }
@@ -51,6 +80,7 @@ public class Storage {
 
     public static List<Patient> loadPatients() throws UnloadedStorageException {
         List<Patient> patients = new ArrayList<>();
+        unreadablePatientLines = new ArrayList<>();
         File file = new File(patientFilePath);
         if (!file.exists()) {
             return patients;
@@ -62,6 +92,8 @@ public class Storage {
                 Patient patient = Parser.parseLoadPatient(line);
                 if (patient != null) {
                     patients.add(patient);
+                } else if (!line.isBlank()) {
+                    unreadablePatientLines.add(line);
                 }
             }
         } catch (Exception e) {
@@ -75,6 +107,10 @@ public class Storage {
         if (directoryPath == null || appointmentFilePath == null) {
             throw new UnloadedStorageException("Storage not initialized with a directory!");
         }
+        if (isDeferringSaves) {
+            pendingAppointments = appointmentList;
+            return;
+        }
 
         File dir = new File(directoryPath);
         if (!dir.exists()) {
@@ -122,10 +158,12 @@ public class Storage {
                     Appointment appointment = Parser.parseLoadAppointment(line);
                     if (appointment != null) {
                         appointments.add(appointment);
+                        countId = Math.max(countId, idNumberOf(appointment.getId().substring(1)) + 1);
                     }
                 }
             }
 
+            Appointment.getIdAllocator().restore();
             Appointment.setRunningId(countId);
 
         } catch (Exception e) {
@@ -139,6 +177,10 @@ public class Storage {
         if (directoryPath == null || prescriptionFilePath == null) {
             throw new UnloadedStorageException("Storage not initialized with a directory!");
         }
+        if (isDeferringSaves) {
+            pendingPrescriptions = prescriptionList;
+            return;
+        }
 
         File dir = new File(directoryPath);
         if (!dir.exists()) {
@@ -170,9 +212,13 @@ public class Storage {
                     Prescription prescription = Prescription.fromFileFormat(line);
                     if (prescription != null) {
                         prescriptions.add(prescription);
+                        String[] idParts = prescription.getPrescriptionId().split("-");
+                        Prescription.getIdAllocator().advanceTo(prescription.getPatientId(),
+                                idNumberOf(idParts[idParts.length - 1]) + 1);
                     }
                 }
             }
+            Prescription.getIdAllocator().restore();
         } catch (Exception e) {
             throw new UnloadedStorageException("Unable to load prescription data: " + e.getMessage());
         }
@@ -180,6 +226,266 @@ public class Storage {
         return prescriptions;
     }
 
+    //@@author Basudeb2005
+    /**
+     * Saves each recurring appointment as its one rule line, however many occurrences it has.
+     */
+    public static void saveRecurringAppointments(List<RecurringAppointment> recurringList)
+            throws UnloadedStorageException {
+        if (directoryPath == null || recurringFilePath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+        if (isDeferringSaves) {
+            pendingRecurring = recurringList;
+            return;
+        }
+
+        File dir = new File(directoryPath);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(recurringFilePath))) {
+            for (RecurringAppointment series : recurringList) {
+                writer.write(series.toFileFormat());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UnloadedStorageException("Unable to save recurring appointments!");
+        }
+    }
+
+    public static List<RecurringAppointment> loadRecurringAppointments() throws UnloadedStorageException {
+        List<RecurringAppointment> recurring = new ArrayList<>();
+        if (recurringFilePath == null) {
+            return recurring;
+        }
+        File file = new File(recurringFilePath);
+        if (!file.exists()) {
+            return recurring;
+        }
+
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                if (!line.trim().isEmpty()) {
+                    RecurringAppointment series = RecurringAppointment.fromFileFormat(line);
+                    if (series != null) {
+                        recurring.add(series);
+                        Appointment.getIdAllocator().advanceTo(RecurringAppointment.ID_PREFIX,
+                                idNumberOf(series.getId().substring(1)) + 1);
+                    }
+                }
+            }
+            Appointment.getIdAllocator().restore();
+        } catch (Exception e) {
+            throw new UnloadedStorageException("Unable to load recurring appointments!");
+        }
+        return recurring;
+    }
+
+    /**
+     * Adds the messages to the end of the outbox file, where another program picks them up and sends them.
+     * Unlike the data files, the outbox is never rewritten, and it is not held back while deferring saves.
+     */
+    public static void appendToOutbox(List<String> messages) throws UnloadedStorageException {
+        if (directoryPath == null || outboxFilePath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+
+        File dir = new File(directoryPath);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outboxFilePath, true))) {
+            for (String message : messages) {
+                writer.write(message);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UnloadedStorageException("Unable to write to the reminder outbox!");
+        }
+    }
+
+    /**
+     * Saves the reserved ID bound of every sequence of the named allocator, one "key|bound" line each.
+     */
+    public static void saveIdReservations(String name, Map<String, Long> bounds) throws UnloadedStorageException {
+        if (directoryPath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+
+        File dir = new File(directoryPath);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(idFilePath(name)))) {
+            for (Map.Entry<String, Long> bound : bounds.entrySet()) {
+                writer.write(bound.getKey() + "|" + bound.getValue());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UnloadedStorageException("Unable to save the reserved IDs!");
+        }
+    }
+
+    public static Map<String, Long> loadIdReservations(String name) throws UnloadedStorageException {
+        if (directoryPath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+
+        Map<String, Long> bounds = new HashMap<>();
+        File file = new File(idFilePath(name));
+        if (!file.exists()) {
+            return bounds;
+        }
+
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String[] parts = scanner.nextLine().split("\\|");
+                if (parts.length == 2) {
+                    bounds.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+                }
+            }
+        } catch (Exception e) {
+            throw new UnloadedStorageException("Unable to load the reserved IDs!");
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the stored patient lines the last load could not read, e.g. with a date of birth in neither
+     * known format. They are kept in the file on every save until fixed by hand.
+     */
+    public static List<String> getUnreadablePatientLines() {
+        return List.copyOf(unreadablePatientLines);
+    }
+
+    /**
+     * Returns whether a storage directory has been set, i.e. whether saves have anywhere to go.
+     */
+    public static boolean isLoaded() {
+        return directoryPath != null;
+    }
+
+    /**
+     * While deferring, the save methods only remember the latest list of each kind, and nothing is written
+     * until {@link #flushPendingSaves()}. Callers hold the manager's write lock around saves and flushes.
+     */
+    public static void setDeferringSaves(boolean isDeferring) {
+        isDeferringSaves = isDeferring;
+    }
+
+    public static boolean isDeferringSaves() {
+        return isDeferringSaves;
+    }
+
+    public static void flushPendingSaves() throws UnloadedStorageException {
+        boolean wasDeferring = isDeferringSaves;
+        isDeferringSaves = false;
+        try {
+            if (pendingPatients != null) {
+                savePatients(pendingPatients);
+                pendingPatients = null;
+            }
+            if (pendingAppointments != null) {
+                saveAppointments(pendingAppointments);
+                pendingAppointments = null;
+            }
+            if (pendingPrescriptions != null) {
+                savePrescriptions(pendingPrescriptions);
+                pendingPrescriptions = null;
+            }
+            if (pendingRecurring != null) {
+                saveRecurringAppointments(pendingRecurring);
+                pendingRecurring = null;
+            }
+        } finally {
+            isDeferringSaves = wasDeferring;
+        }
+    }
+
+    /**
+     * Saves all four lists as one change: each file is written in full beside the old one and only then moved
+     * into place, so a failed write leaves every file as it was. Used when a change spans several files,
+     * such as deleting a patient together with their appointments, series and prescriptions.
+     */
+    public static void saveAll(List<Patient> patientList, List<Appointment> appointmentList,
+                               List<Prescription> prescriptionList, List<RecurringAppointment> recurringList)
+            throws UnloadedStorageException {
+        if (directoryPath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+        if (isDeferringSaves) {
+            pendingPatients = patientList;
+            pendingAppointments = appointmentList;
+            pendingPrescriptions = prescriptionList;
+            pendingRecurring = recurringList;
+            return;
+        }
+
+        File dir = new File(directoryPath);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        Path appointmentFile = Paths.get(appointmentFilePath);
+        Path prescriptionFile = Paths.get(prescriptionFilePath);
+        Path recurringFile = Paths.get(recurringFilePath);
+        Path patientFile = Paths.get(patientFilePath);
+        try {
+            Path appointmentDraft = writeDraft(appointmentFile, "countId:" + Appointment.getRunningId(),
+                    appointmentList, Appointment::toFileFormat);
+            Path prescriptionDraft = writeDraft(prescriptionFile, null, prescriptionList,
+                    Prescription::toFileFormat);
+            Path recurringDraft = writeDraft(recurringFile, null, recurringList,
+                    RecurringAppointment::toFileFormat);
+            List<String> patientLines = new ArrayList<>(patientList.size() + unreadablePatientLines.size());
+            for (Patient patient : patientList) {
+                patientLines.add(patient.toFileFormat());
+            }
+            patientLines.addAll(unreadablePatientLines);
+            Path patientDraft = writeDraft(patientFile, null, patientLines, Function.identity());
+            // Patients go last, so an interrupted move never leaves records of a patient who is gone
+            Files.move(appointmentDraft, appointmentFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(prescriptionDraft, prescriptionFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(recurringDraft, recurringFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(patientDraft, patientFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UnloadedStorageException("Unable to save the clinic data!");
+        }
+    }
+
+    private static <T> Path writeDraft(Path file, String header, List<T> records, Function<T, String> format)
+            throws IOException {
+        Path draft = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(draft, Charset.defaultCharset())) {
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+            for (T record : records) {
+                writer.write(format.apply(record));
+                writer.newLine();
+            }
+        }
+        return draft;
+    }
+
+    private static String idFilePath(String name) {
+        return directoryPath + File.separator + name + "_ids.txt";
+    }
+
+    private static int idNumberOf(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     public static void savePrescriptionHtml(Prescription prescription, Patient patient) 
             throws UnloadedStorageException {
         if (directoryPath == null || prescriptionDirPath == null) {
@@ -191,14 +497,38 @@ public class Storage {
             dir.mkdirs();
         }
 
-        String fileName = "prescription_" + prescription.getPatientId() + "_" 
-                + prescription.getPrescriptionId().split("-")[1] + ".html";
-        String filePath = prescriptionDirPath + File.separator + fileName;
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(prescriptionHtmlPath(prescription)))) {
             writer.write(prescription.generateHtml(patient));
         } catch (IOException e) {
             throw new UnloadedStorageException("Unable to generate HTML prescription: " + e.getMessage());
         }
     }
+
+    /**
+     * Deletes the HTML files generated for the prescriptions, if any, e.g. once their patient is deleted.
+     */
+    public static void deletePrescriptionHtml(List<Prescription> prescriptionList) throws UnloadedStorageException {
+        if (directoryPath == null || prescriptionDirPath == null) {
+            throw new UnloadedStorageException("Storage not initialized with a directory!");
+        }
+
+        List<String> undeleted = new ArrayList<>();
+        for (Prescription prescription : prescriptionList) {
+            Path file = Paths.get(prescriptionHtmlPath(prescription));
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                undeleted.add(file.getFileName().toString());
+            }
+        }
+        if (!undeleted.isEmpty()) {
+            throw new UnloadedStorageException("Unable to delete HTML prescriptions: " + String.join(", ", undeleted));
+        }
+    }
+
+    private static String prescriptionHtmlPath(Prescription prescription) {
+        String fileName = "prescription_" + prescription.getPatientId() + "_"
+                + prescription.getPrescriptionId().split("-")[1] + ".html";
+        return prescriptionDirPath + File.separator + fileName;
+    }
 } 
@@ -0,0 +1,89 @@
+package index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmapTest {
+
+    private static Bitmap bitmapOf(int... bits) {
+        Bitmap bitmap = new Bitmap();
+        for (int bit : bits) {
+            bitmap.set(bit);
+        }
+        return bitmap;
+    }
+
+    private static List<Integer> bitsOf(Bitmap bitmap) {
+        List<Integer> bits = new ArrayList<>();
+        bitmap.forEach(bits::add);
+        return bits;
+    }
+
+    @Test
+    void set_bitsAcrossWords_expectSortedIteration() {
+        Bitmap bitmap = bitmapOf(1000, 3, 64, 63);
+
+        assertEquals(List.of(3, 63, 64, 1000), bitsOf(bitmap));
+        assertEquals(4, bitmap.cardinality());
+        assertTrue(bitmap.contains(64));
+        assertFalse(bitmap.contains(65));
+    }
+
+    @Test
+    void clear_lastBitInWord_expectEmptyBitmap() {
+        Bitmap bitmap = bitmapOf(70);
+        bitmap.clear(70);
+        bitmap.clear(5);
+
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void and_or_andNot_expectSetOperations() {
+        Bitmap first = bitmapOf(1, 2, 200, 5000);
+        Bitmap second = bitmapOf(2, 3, 5000, 7000);
+
+        assertEquals(List.of(2, 5000), bitsOf(first.and(second)));
+        assertEquals(List.of(1, 2, 3, 200, 5000, 7000), bitsOf(first.or(second)));
+        assertEquals(List.of(1, 200), bitsOf(first.andNot(second)));
+        assertEquals(List.of(1, 2, 200, 5000), bitsOf(first));
+    }
+
+    @Test
+    void bitmapIndex_combinedValues_expectMatchingItemsInInsertionOrder() {
+        BitmapIndex<String> index = new BitmapIndex<>();
+        index.put("A100", List.of("done:false", "gender:f"));
+        index.put("A101", List.of("done:true", "gender:f"));
+        index.put("A102", List.of("done:false", "gender:m"));
+        index.put("A103", List.of("done:false", "gender:f"));
+        index.put("A101", List.of("done:false", "gender:f"));
+        index.remove("A103");
+
+        Bitmap undoneFemale = index.get("done:false").and(index.get("gender:f"));
+
+        assertEquals(List.of("A100", "A101"), index.resolve(undoneFemale));
+        assertEquals(List.of("A102"), index.resolve(index.all().andNot(index.get("gender:f"))));
+    }
+
+    @Test
+    void bitmapIndex_repeatedPutAndRemove_expectRowCountBoundedAndOrderKept() {
+        BitmapIndex<String> index = new BitmapIndex<>();
+        index.put("A100", List.of("done:false"));
+        index.put("A101", List.of("done:true"));
+        for (int i = 0; i < 10_000; i++) {
+            index.put("A" + (200 + i), List.of("done:false"));
+            index.remove("A" + (200 + i));
+        }
+        index.put("A102", List.of("done:false"));
+
+        assertTrue(index.getRowCount() <= 64, "Removed rows were never reclaimed: " + index.getRowCount());
+        assertEquals(List.of("A100", "A102"), index.resolve(index.get("done:false")));
+        assertEquals(List.of("A100", "A101", "A102"), index.resolve(index.all()));
+    }
+}
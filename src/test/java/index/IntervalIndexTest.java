@@ -0,0 +1,63 @@
+package index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntervalIndexTest {
+
+    @Test
+    void findOverlapping_touchingAndOverlappingIntervals_expectHalfOpenOverlap() {
+        IntervalIndex<Integer, String> index = new IntervalIndex<>();
+        index.put("morning", 9, 10);
+        index.put("noon", 12, 13);
+
+        assertNull(index.findOverlapping(10, 12), "Intervals that only touch should not overlap");
+        assertEquals("noon", index.findOverlapping(11, 13));
+        assertEquals(List.of("morning", "noon"), index.overlapping(8, 14));
+
+        index.put("noon", 15, 16);
+        assertNull(index.findOverlapping(11, 13), "Putting an item again should move its interval");
+    }
+
+    @Test
+    void overlapping_randomPutsAndRemoves_expectSameAsScan() {
+        IntervalIndex<Integer, Integer> index = new IntervalIndex<>();
+        Map<Integer, int[]> intervals = new HashMap<>();
+        Random random = new Random(7);
+        for (int step = 0; step < 5000; step++) {
+            int item = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(item);
+                intervals.remove(item);
+            } else {
+                int start = random.nextInt(2000);
+                int end = start + 1 + random.nextInt(60);
+                index.put(item, start, end);
+                intervals.put(item, new int[] {start, end});
+            }
+
+            int start = random.nextInt(2000);
+            int end = start + 1 + random.nextInt(60);
+            List<Integer> expected = new ArrayList<>();
+            intervals.forEach((key, interval) -> {
+                if (interval[0] < end && interval[1] > start) {
+                    expected.add(key);
+                }
+            });
+            List<Integer> found = index.overlapping(start, end);
+            assertEquals(expected.size(), found.size(), "Overlaps of [" + start + ", " + end + ")");
+            assertEquals(new HashSet<>(expected), new HashSet<>(found));
+            assertEquals(expected.isEmpty(), index.findOverlapping(start, end) == null);
+        }
+        assertEquals(intervals.size(), index.size());
+    }
+}
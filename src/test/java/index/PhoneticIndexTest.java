@@ -0,0 +1,49 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhoneticIndexTest {
+    private PhoneticIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PhoneticIndex<>();
+        index.put("S1", "John Smith");
+        index.put("S2", "Catherine Lee");
+        index.put("S3", "Jane Doe");
+    }
+
+    @Test
+    void soundex_knownNames_expectStandardCodes() {
+        assertEquals("R163", PhoneticIndex.soundex("Robert"));
+        assertEquals("R163", PhoneticIndex.soundex("Rupert"));
+        assertEquals("A261", PhoneticIndex.soundex("Ashcraft"));
+        assertEquals("T522", PhoneticIndex.soundex("Tymczak"));
+        assertEquals("", PhoneticIndex.soundex("123"));
+    }
+
+    @Test
+    void search_differentSpelling_expectMatchFound() {
+        assertEquals(List.of("S1"), index.search("Jon Smyth"));
+        assertEquals(List.of("S2"), index.search("Cathryn"));
+    }
+
+    @Test
+    void search_onlyOneWordMatches_expectNoMatch() {
+        assertTrue(index.search("Jon Lee").isEmpty());
+    }
+
+    @Test
+    void put_renamedItem_expectIndexUpdated() {
+        index.put("S3", "Jane Smith");
+
+        assertEquals(List.of("S1", "S3"), index.search("Smithe"));
+        assertTrue(index.search("Doe").isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SlotCalendarTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 4, 1);
+    private static final LocalTime OPENS = LocalTime.of(9, 0);
+    private static final LocalTime CLOSES = LocalTime.of(18, 0);
+
+    @Test
+    void findFree_partlyBookedDay_expectFirstGapThatFits() {
+        SlotCalendar calendar = new SlotCalendar();
+        calendar.occupy(DAY.atTime(9, 0), DAY.atTime(10, 0));
+        calendar.occupy(DAY.atTime(10, 30), DAY.atTime(10, 40));
+
+        assertEquals(DAY.atTime(10, 0), findFree(calendar, DAY.atTime(8, 0), 30));
+        assertEquals(DAY.atTime(10, 45), findFree(calendar, DAY.atTime(8, 0), 45));
+        assertEquals(DAY.atTime(11, 0), findFree(calendar, DAY.atTime(10, 50), 15));
+    }
+
+    @Test
+    void findFree_dayTooFull_expectNextDayOrNone() {
+        SlotCalendar calendar = new SlotCalendar();
+        calendar.occupy(DAY.atTime(9, 0), DAY.atTime(17, 30));
+
+        assertEquals(DAY.atTime(17, 30), findFree(calendar, DAY.atTime(9, 0), 30));
+        assertEquals(DAY.plusDays(1).atTime(9, 0),
+                calendar.findFree(DAY.atTime(9, 0), Duration.ofMinutes(60), OPENS, CLOSES, 2));
+        assertNull(calendar.findFree(DAY.atTime(9, 0), Duration.ofMinutes(60), OPENS, CLOSES, 1));
+        assertNull(calendar.findFree(DAY.atTime(9, 0), Duration.ofHours(10), OPENS, CLOSES, 30));
+    }
+
+    @Test
+    void findFree_randomBookings_expectSameAsSlotBySlotScan() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            SlotCalendar calendar = new SlotCalendar();
+            boolean[] busy = new boolean[SlotCalendar.SLOTS_PER_DAY];
+            for (int booking = random.nextInt(12); booking > 0; booking--) {
+                int start = random.nextInt(SlotCalendar.SLOTS_PER_DAY);
+                int length = 1 + random.nextInt(8);
+                LocalDateTime from = DAY.atStartOfDay().plusMinutes(start * 15L);
+                calendar.occupy(from, from.plusMinutes(length * 15L));
+                for (int slot = start; slot < Math.min(start + length, busy.length); slot++) {
+                    busy[slot] = true;
+                }
+            }
+            int needed = 1 + random.nextInt(90);
+
+            LocalDateTime expected = null;
+            for (int slot = 0; slot + needed <= busy.length && expected == null; slot++) {
+                boolean isFree = true;
+                for (int k = slot; k < slot + needed; k++) {
+                    isFree &= !busy[k];
+                }
+                if (isFree) {
+                    expected = DAY.atStartOfDay().plusMinutes(slot * 15L);
+                }
+            }
+            assertEquals(expected, calendar.findFree(DAY.atStartOfDay(), Duration.ofMinutes(needed * 15L),
+                    LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 1), "Run of " + needed + " slots");
+        }
+    }
+
+    private static LocalDateTime findFree(SlotCalendar calendar, LocalDateTime earliest, int minutes) {
+        return calendar.findFree(earliest, Duration.ofMinutes(minutes), OPENS, CLOSES, 1);
+    }
+}
@@ -0,0 +1,78 @@
+package index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceTo_scheduledAndCancelledItems_expectOnlyScheduledFiredInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000);
+        wheel.schedule("late", 1000 + 5000);
+        wheel.schedule("soon", 1003);
+        wheel.schedule("past", 10);
+        wheel.schedule("cancelled", 1002);
+        wheel.schedule("moved", 1001);
+        wheel.schedule("moved", 1500);
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+
+        assertEquals(List.of("past", "soon"), wheel.advanceTo(1100));
+        assertEquals(List.of("moved", "late"), wheel.advanceTo(100_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_beyondWheelSpan_expectItemFiredOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        long due = (1L << 24) * 3 + 12345;
+        wheel.schedule("far", due);
+
+        assertTrue(wheel.advanceTo(due - 1).isEmpty());
+        assertEquals(List.of("far"), wheel.advanceTo(due));
+    }
+
+    @Test
+    void advanceTo_randomSchedulesAndCancels_expectSameAsScan() {
+        Random random = new Random(7);
+        long start = 29_000_000L + random.nextInt(100_000);
+        TimingWheel<Integer> wheel = new TimingWheel<>(start);
+        Map<Integer, Long> due = new HashMap<>();
+        long now = start;
+        for (int step = 0; step < 3000; step++) {
+            int item = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                wheel.cancel(item);
+                due.remove(item);
+            } else {
+                long tick = now + 1 + (random.nextBoolean() ? random.nextInt(100) : random.nextInt(300_000));
+                wheel.schedule(item, tick);
+                due.put(item, tick);
+            }
+
+            long target = now + random.nextInt(random.nextInt(10) == 0 ? 20_000 : 50);
+            List<Integer> expected = new ArrayList<>();
+            due.entrySet().stream()
+                    .filter(entry -> entry.getValue() <= target)
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> expected.add(entry.getKey()));
+            List<Integer> fired = wheel.advanceTo(target);
+            assertEquals(expected.size(), fired.size(), "Items due by tick " + target);
+            for (int i = 0; i < fired.size(); i++) {
+                assertEquals(due.get(expected.get(i)), due.get(fired.get(i)), "Items should fire in order of due tick");
+            }
+            expected.forEach(due::remove);
+            assertEquals(due.size(), wheel.size());
+            now = target;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.put("S1", "Jane Smith");
+        index.put("S2", "John Doe");
+        index.put("S3", "Janet Smithers");
+    }
+
+    @Test
+    void search_transposedLetters_expectMatchFound() {
+        List<String> result = index.search("Jnae Smith");
+
+        assertEquals("S1", result.get(0));
+    }
+
+    @Test
+    void search_misspelledFirstNameOnly_expectMatchFound() {
+        List<String> result = index.search("jhon");
+
+        assertEquals(List.of("S2"), result);
+    }
+
+    @Test
+    void search_typoInLaterShortWord_expectMatchFound() {
+        assertEquals(List.of("S2"), index.search("Dae"));
+        assertEquals(List.of("S1"), index.search("Smiht"));
+    }
+
+    @Test
+    void search_unrelatedName_expectNoMatch() {
+        assertTrue(index.search("Bartholomew").isEmpty());
+    }
+
+    @Test
+    void search_closestMatch_expectOrderedByDistance() {
+        List<String> result = index.search("Janet Smith");
+
+        assertEquals(List.of("S1"), result.subList(0, 1));
+    }
+
+    @Test
+    void put_renamedItem_expectOldNameNoLongerMatches() {
+        index.put("S2", "Billy Joe");
+
+        assertTrue(index.search("John Doe").isEmpty());
+        assertEquals(List.of("S2"), index.search("Bily Joe"));
+    }
+
+    @Test
+    void remove_indexedItem_expectNoMatch() {
+        index.remove("S1");
+
+        assertEquals(List.of(), index.search("Jane Smith"));
+    }
+
+    @Test
+    void boundedDistance_exceedsBound_expectBoundPlusOne() {
+        assertEquals(1, TrigramIndex.boundedDistance("jnae", "jane", 2));
+        assertEquals(3, TrigramIndex.boundedDistance("abcdef", "uvwxyz", 2));
+    }
+}
@@ -0,0 +1,96 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import storage.Storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdAllocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        new Storage(tempDir.toString());
+    }
+
+    @Test
+    void next_concurrentThreads_expectUniqueIds() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator("test", 1, 10);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    ids.add(allocator.next("A"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, ids.size());
+        assertEquals(4001, allocator.peek("A"));
+    }
+
+    @Test
+    void restore_afterCrash_expectNoReusedIds() {
+        IdAllocator beforeCrash = new IdAllocator("test", 1, 10);
+        long lastIssued = 0;
+        for (int i = 0; i < 13; i++) {
+            lastIssued = beforeCrash.next("S1234567A");
+        }
+
+        IdAllocator afterRestart = new IdAllocator("test", 1, 10);
+        afterRestart.restore();
+
+        assertTrue(afterRestart.next("S1234567A") > lastIssued, "Restarted sequence reused an ID");
+        assertEquals(1, afterRestart.next("S7654321B"));
+    }
+
+    @Test
+    void release_cleanShutdown_expectNumberingContinuesWithoutGap() {
+        IdAllocator beforeExit = new IdAllocator("test", 100, 100);
+        beforeExit.next("A");
+        beforeExit.next("A");
+        beforeExit.release();
+
+        IdAllocator afterRestart = new IdAllocator("test", 100, 100);
+        afterRestart.restore();
+
+        assertEquals(102, afterRestart.next("A"));
+    }
+
+    @Test
+    void next_reservationNotSaved_expectErrorAndNoIdAboveSavedBound() throws IOException {
+        Path notADirectory = Files.createFile(tempDir.resolve("blocked"));
+        new Storage(notADirectory.toString());
+        IdAllocator allocator = new IdAllocator("test", 1, 10);
+
+        assertThrows(IllegalStateException.class, () -> allocator.next("A"));
+        assertThrows(IllegalStateException.class, () -> allocator.next("A"));
+
+        new Storage(tempDir.toString());
+        long issued = allocator.next("A");
+        IdAllocator afterRestart = new IdAllocator("test", 1, 10);
+        afterRestart.restore();
+        assertTrue(afterRestart.next("A") > issued, "An ID was handed out above the saved bound");
+    }
+}
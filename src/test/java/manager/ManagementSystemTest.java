@@ -10,16 +10,24 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -165,6 +173,99 @@ class ManagementSystemTest {
         assertNull(retrievedPatient, "Patient should not be found when system is empty");
     }
 
+    @Test
+    void findPatients_ageRange_expectOnlyPatientsInRange() {
+        List<Patient> patients = new ArrayList<>();
+        patients.add(new Patient("S1111111A", "Seventy One", "1949-06-01",
+                "F", "1 Main St", "81111111", new ArrayList<>()));
+        patients.add(new Patient("S2222222B", "Fifty Nine", "1960-06-02",
+                "F", "2 Main St", "82222222", new ArrayList<>()));
+        patients.add(new Patient("S3333333C", "Sixty", "1960-06-01",
+                "M", "3 Main St", "83333333", new ArrayList<>()));
+        patients.add(new Patient("S4444444D", "Young", "1985-03-03",
+                "M", "4 Main St", "84444444", new ArrayList<>()));
+        ManagementSystem manager = new ManagementSystem(patients, new ArrayList<>());
+        LocalDate today = LocalDate.of(2020, 6, 1);
+
+        PatientFilter ageFilter = new PatientFilter();
+        ageFilter.setAgeRange(60, 70);
+        PatientFilter birthYearFilter = new PatientFilter();
+        birthYearFilter.setBirthYear(1985);
+
+        List<Patient> aged60To70 = manager.findPatients(ageFilter, today);
+        List<Patient> bornIn1985 = manager.findPatients(birthYearFilter, today);
+
+        assertEquals(1, aged60To70.size());
+        assertEquals("Sixty", aged60To70.get(0).getName());
+        assertEquals(1, bornIn1985.size());
+        assertEquals("Young", bornIn1985.get(0).getName());
+    }
+
+    @Test
+    void findAppointments_combinedFilters_expectOnlyMatchingAppointments()
+            throws DuplicatePatientIDException, UnloadedStorageException {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        manager.addPatient(new Patient("S1234567D", "Billy", "1990-10-01",
+                "M", "124 High St", "81234567", new ArrayList<>()));
+        manager.addPatient(new Patient("S7654321F", "Jane", "1985-06-15",
+                "Female", "123 Health St", "91234567", new ArrayList<>()));
+
+        Appointment aprilFemale = new Appointment("S7654321F",
+                LocalDateTime.parse("2025-04-02 0900", DATE_TIME_FORMAT), "Checkup");
+        Appointment aprilFemaleDone = new Appointment("S7654321F",
+                LocalDateTime.parse("2025-04-03 0900", DATE_TIME_FORMAT), "Scan");
+        Appointment aprilMale = new Appointment("S1234567D",
+                LocalDateTime.parse("2025-04-02 1000", DATE_TIME_FORMAT), "Checkup");
+        Appointment mayFemale = new Appointment("S7654321F",
+                LocalDateTime.parse("2025-05-02 0900", DATE_TIME_FORMAT), "Review");
+        manager.addAppointment(aprilFemale);
+        manager.addAppointment(aprilFemaleDone);
+        manager.addAppointment(aprilMale);
+        manager.addAppointment(mayFemale);
+        manager.markAppointment(aprilFemaleDone.getId());
+
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setIsDone(false);
+        filter.setMonth(YearMonth.of(2025, 4));
+        filter.setGender("F");
+
+        assertEquals(List.of(aprilFemale), manager.findAppointments(filter));
+
+        AppointmentFilter pagedFilter = new AppointmentFilter();
+        pagedFilter.setNric("s7654321f");
+        pagedFilter.setDateRange(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 31));
+        pagedFilter.setOffset(1);
+        pagedFilter.setLimit(1);
+
+        assertEquals(List.of(aprilFemaleDone), manager.findAppointments(pagedFilter));
+    }
+
+    @Test
+    void forEachAppointment_dateRangeWithLimit_expectTimeOrderAndEarlyStop()
+            throws DuplicatePatientIDException, UnloadedStorageException {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        manager.addPatient(new Patient("S1234567D", "Billy", "1990-10-01",
+                "M", "124 High St", "81234567", new ArrayList<>()));
+        Appointment late = new Appointment("S1234567D",
+                LocalDateTime.parse("2025-04-01 1600", DATE_TIME_FORMAT), "Review");
+        Appointment early = new Appointment("S1234567D",
+                LocalDateTime.parse("2025-04-01 0900", DATE_TIME_FORMAT), "Checkup");
+        Appointment nextDay = new Appointment("S1234567D",
+                LocalDateTime.parse("2025-04-02 0900", DATE_TIME_FORMAT), "Scan");
+        manager.addAppointment(late);
+        manager.addAppointment(early);
+        manager.addAppointment(nextDay);
+
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setDateRange(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 1));
+        filter.setLimit(5);
+        List<Appointment> streamed = new ArrayList<>();
+        int count = manager.forEachAppointment(filter, streamed::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(early, late), streamed);
+    }
+
     @Test
     void addAppointment_validInput_expectAppointmentAdded() throws UnloadedStorageException {
         List<Patient> patients = new ArrayList<>();
@@ -247,6 +348,91 @@ class ManagementSystemTest {
         assertNull(removedAppointment, "Should return null");
     }
 
+    @Test
+    void concurrentSessions_writersAndReaders_expectNoLostUpdates() throws InterruptedException {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        int writerCount = 4;
+        int patientsPerWriter = 50;
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writerCount; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < patientsPerWriter; i++) {
+                        String nric = String.format("S%d%06dA", writer, i);
+                        manager.addPatient(new Patient(nric, "Patient " + writer + " " + i, "1980-01-01",
+                                i % 2 == 0 ? "M" : "F", "1 Main St", "81234567", new ArrayList<>()));
+                        manager.addAppointment(new Appointment(nric,
+                                LocalDateTime.of(2025, 4, 1 + i % 28, 9, 0), "Checkup"));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (int r = 0; r < writerCount; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    AppointmentFilter filter = new AppointmentFilter();
+                    filter.setIsDone(false);
+                    for (int i = 0; i < patientsPerWriter; i++) {
+                        for (Patient patient : manager.getPatients()) {
+                            assertNotNull(patient.getName());
+                        }
+                        manager.forEachAppointment(filter, appointment -> assertFalse(appointment.isDone()));
+                        manager.findPatientsBySound("Patient");
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), "Concurrent access failed: " + failures);
+        assertEquals(writerCount * patientsPerWriter, manager.getPatients().size());
+        assertEquals(writerCount * patientsPerWriter, manager.getAppointments().size());
+        Set<String> ids = new HashSet<>();
+        for (Appointment appointment : manager.getAppointments()) {
+            assertTrue(ids.add(appointment.getId()), "Duplicate appointment ID " + appointment.getId());
+        }
+        assertEquals(writerCount * patientsPerWriter, manager.findAppointments(new AppointmentFilter()).size());
+    }
+
+    @Test
+    void snapshot_writeAfterSnapshot_expectOldSnapshotUnchanged()
+            throws DuplicatePatientIDException, UnloadedStorageException {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        manager.addPatient(new Patient("S1234567D", "Billy", "1990-10-01",
+                "M", "124 High St", "81234567", new ArrayList<>()));
+
+        Snapshot before = manager.snapshot();
+        assertTrue(before == manager.snapshot(), "Snapshot should be reused until the next write");
+
+        manager.addPatient(new Patient("S2345678D", "James", "1980-12-31",
+                "M", "133 Main St", "81229312", new ArrayList<>()));
+        manager.deletePatient("S1234567D");
+        Snapshot after = manager.snapshot();
+
+        assertEquals(1, before.getPatients().size());
+        assertEquals("Billy", before.getPatients().get(0).getName());
+        assertEquals(1, after.getPatients().size());
+        assertEquals("James", after.getPatients().get(0).getName());
+        assertTrue(after.getVersion() > before.getVersion(), "Each write should start a new version");
+    }
+
     @Test
     void sortAppointmentsByDateTime_sortByDateTime_appointmentsSortedByDateTime() {
         ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
@@ -352,4 +538,502 @@ class ManagementSystemTest {
 
         assertNull(foundAppointment, "Non-existent appointment should return null");
     }
+
+    @Test
+    void renderedViews_unchangedAndChangedPatient_expectCachedUntilMutation()
+            throws DuplicatePatientIDException, UnloadedStorageException {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>(List.of("Asthma")));
+        manager.addPatient(patient);
+        Appointment appointment = new Appointment("S1234567A",
+                LocalDateTime.parse("2025-04-10 1500", DATE_TIME_FORMAT), "Checkup");
+        manager.addAppointment(appointment);
+
+        String listView = patient.toStringForListView();
+        assertSame(listView, patient.toStringForListView(), "Unchanged patient should reuse the rendered view");
+
+        manager.markAppointment(appointment.getId());
+        String markedView = patient.toStringForListView();
+        assertTrue(markedView.contains("[X]"), "Marking an appointment should show in the patient view");
+        assertTrue(appointment.toString().contains("[X]"), "Marking should show in the appointment view");
+
+        manager.editPatientHistory("S1234567A", "asthma", "Eczema");
+        assertTrue(patient.toString().contains("Eczema"), "Edited history should show in the patient view");
+        assertFalse(patient.toStringForListView().contains("Asthma"), "Old history should not be shown");
+    }
+
+    @Test
+    void flushPendingSaves_deferredAdds_expectSingleWriteAtFlush() throws Exception {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        Storage.setDeferringSaves(true);
+        try {
+            for (int i = 0; i < 100; i++) {
+                manager.addPatient(new Patient(String.format("S%07dB", i), "Patient " + i, "1990-01-01",
+                        "F", "1 Main St", "81234567", new ArrayList<>()));
+            }
+            assertFalse(Files.exists(TEST_FILE_PATH), "Deferred saves should not write the file");
+
+            manager.flushPendingSaves();
+        } finally {
+            Storage.setDeferringSaves(false);
+        }
+
+        assertEquals(100, Files.readAllLines(TEST_FILE_PATH).size());
+    }
+
+    @Test
+    void commitTransaction_newPatientWithRecords_expectOneSaveAtCommit() throws Exception {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        manager.beginTransaction();
+        manager.addPatient(new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>()));
+        manager.storeMedicalHistory("John Doe", "S1234567A", "Asthma");
+        for (int day = 1; day <= 3; day++) {
+            manager.addAppointment(new Appointment("S1234567A", LocalDateTime.of(2025, 4, day, 9, 0), "Review"));
+        }
+        manager.addPrescription(new Prescription("S1234567A", List.of("Cough"), List.of("Syrup"), ""));
+
+        assertFalse(Files.exists(TEST_FILE_PATH), "Nothing should be saved before commit");
+        assertEquals(6, manager.commitTransaction());
+        assertFalse(manager.isInTransaction());
+        assertTrue(Files.readString(TEST_FILE_PATH).contains("[Asthma]"), "Commit should save the patient");
+    }
+
+    @Test
+    void rollbackTransaction_mixedChanges_expectEarlierStateRestored() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>(List.of("Asthma")));
+        Appointment first = new Appointment("A1", "S1234567A", LocalDateTime.of(2025, 4, 2, 9, 0), "Later");
+        Appointment second = new Appointment("A2", "S1234567A", LocalDateTime.of(2025, 4, 1, 9, 0), "Earlier");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)),
+                new ArrayList<>(List.of(first, second)));
+        String viewBefore = patient.toString();
+
+        manager.beginTransaction();
+        manager.editPatient("S1234567A", "Johnny", null, "F", null, null);
+        manager.editPatientHistory("S1234567A", "asthma", "Eczema");
+        manager.markAppointment("A1");
+        manager.sortAppointmentsByDateTime();
+        manager.deleteAppointment("A2");
+        manager.addPatient(new Patient("S7654321B", "Jane Roe", "1985-05-05",
+                "F", "1 Side St", "91234567", new ArrayList<>()));
+        assertEquals(6, manager.rollbackTransaction());
+
+        assertEquals(viewBefore, patient.toString());
+        assertEquals(List.of(first, second), manager.getAppointments());
+        assertEquals(1, manager.getPatients().size());
+        assertFalse(first.isDone(), "Marking should be undone");
+        assertEquals(List.of(first, second), manager.findAppointments(filterOfGender("M")));
+    }
+
+    @Test
+    void commitTransaction_deletedPatientWithAppointment_expectAppointmentDeletedToo() throws Exception {
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        manager.beginTransaction();
+        manager.addPatient(new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>()));
+        manager.addAppointment(new Appointment("S1234567A", LocalDateTime.of(2025, 4, 1, 9, 0), "Review"));
+        manager.deletePatient("S1234567A");
+
+        assertEquals(3, manager.commitTransaction());
+        assertFalse(manager.isInTransaction());
+        assertEquals(0, manager.getAppointments().size());
+        assertThrows(IllegalArgumentException.class, manager::rollbackTransaction);
+    }
+
+    private static AppointmentFilter filterOfGender(String gender) {
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setGender(gender);
+        return filter;
+    }
+
+    @Test
+    void markAndDeleteAppointments_filters_expectMatchingAppointmentsChanged() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)), new ArrayList<>());
+        for (int day = 1; day <= 4; day++) {
+            for (int hour = 9; hour < 12; hour++) {
+                manager.addAppointment(new Appointment("S1234567A", LocalDateTime.of(2025, 4, day, hour, 0), "Visit"));
+            }
+        }
+        AppointmentFilter firstDay = new AppointmentFilter();
+        firstDay.setDateRange(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 1));
+        AppointmentFilter laterDays = new AppointmentFilter();
+        laterDays.setDateRange(LocalDate.of(2025, 4, 3), null);
+
+        assertEquals(3, manager.markAppointments(firstDay, true).size());
+        assertEquals(0, manager.markAppointments(firstDay, true).size(), "Done appointments should not change");
+        manager.beginTransaction();
+        assertEquals(6, manager.deleteAppointments(laterDays).size());
+        assertEquals(6, patient.getAppointments().size());
+        manager.rollbackTransaction();
+        assertEquals(12, patient.getAppointments().size());
+        assertEquals(6, manager.deleteAppointments(laterDays).size());
+
+        AppointmentFilter done = new AppointmentFilter();
+        done.setIsDone(true);
+        assertEquals(3, manager.findAppointments(done).size());
+        assertEquals(6, manager.getAppointmentCount());
+        assertEquals(6, patient.getAppointments().size());
+        assertEquals(7, Files.readAllLines(Paths.get(TEST_DIR, "appointment_data.txt")).size());
+    }
+
+    @Test
+    void deletePatient_patientWithRecords_expectRecordsDeletedAndSavedTogether() throws Exception {
+        Patient kept = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Patient deleted = new Patient("S7654321B", "Jane Tan", "1985-05-05",
+                "F", "9 Side Rd", "91234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(kept, deleted)), new ArrayList<>());
+        Appointment keptAppointment = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 1, 9, 0), "Review");
+        manager.addAppointment(keptAppointment);
+        manager.addAppointment(new Appointment("S7654321B", LocalDateTime.of(2025, 4, 1, 10, 0), "Scan"));
+        manager.addAppointment(new Appointment("S7654321B", LocalDateTime.of(2025, 4, 2, 10, 0), "Results"));
+        Prescription keptPrescription = manager.addPrescription(
+                new Prescription("S1234567A", List.of("Cough"), List.of("Syrup"), ""));
+        Prescription deletedPrescription = manager.addPrescription(
+                new Prescription("S7654321B", List.of("Fever"), List.of("Paracetamol"), ""));
+        Storage.savePrescriptionHtml(keptPrescription, kept);
+        Storage.savePrescriptionHtml(deletedPrescription, deleted);
+        Path keptHtml = prescriptionHtmlOf(keptPrescription);
+        Path deletedHtml = prescriptionHtmlOf(deletedPrescription);
+
+        manager.beginTransaction();
+        manager.deletePatient("S7654321B");
+        assertEquals(List.of(keptAppointment), manager.getAppointments());
+        manager.rollbackTransaction();
+        assertTrue(Files.exists(deletedHtml), "Rollback should keep the prescription file");
+        assertEquals(3, manager.getAppointments().size());
+        assertEquals(1, manager.getPrescriptionsForPatient("S7654321B").size());
+        assertEquals(2, manager.findAppointments(filterOfGender("F")).size());
+
+        manager.deletePatient("S7654321B");
+
+        assertEquals(List.of(keptAppointment), manager.getAppointments());
+        assertEquals(List.of(keptAppointment), manager.findAppointments(new AppointmentFilter()));
+        assertEquals(0, manager.findAppointments(filterOfGender("F")).size());
+        assertEquals(1, manager.getPrescriptions().size());
+        assertTrue(manager.getPrescriptionsForPatient("S7654321B").isEmpty());
+        assertEquals(1, Files.readAllLines(TEST_FILE_PATH).size());
+        assertEquals(2, Files.readAllLines(Paths.get(TEST_DIR, "appointment_data.txt")).size());
+        assertEquals(1, Files.readAllLines(Paths.get(TEST_DIR, "prescription_data.txt")).size());
+        assertFalse(Files.exists(Paths.get(TEST_DIR, "patient_data.txt.tmp")), "Drafts should be moved into place");
+        assertFalse(Files.exists(deletedHtml), "The deleted patient's prescription file was left behind");
+        assertTrue(Files.exists(keptHtml));
+    }
+
+    @Test
+    void deletePatient_inTransaction_expectPrescriptionFileDeletedAtCommit() throws Exception {
+        Patient patient = new Patient("S7654321B", "Jane Tan", "1985-05-05",
+                "F", "9 Side Rd", "91234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)), new ArrayList<>());
+        Prescription prescription = manager.addPrescription(
+                new Prescription("S7654321B", List.of("Fever"), List.of("Paracetamol"), ""));
+        Storage.savePrescriptionHtml(prescription, patient);
+
+        manager.beginTransaction();
+        manager.deletePatient("S7654321B");
+        assertTrue(Files.exists(prescriptionHtmlOf(prescription)), "Nothing should be deleted before commit");
+        manager.commitTransaction();
+
+        assertFalse(Files.exists(prescriptionHtmlOf(prescription)));
+    }
+
+    private static Path prescriptionHtmlOf(Prescription prescription) {
+        return Paths.get(TEST_DIR, "prescriptions", "prescription_" + prescription.getPatientId() + "_"
+                + prescription.getPrescriptionId().split("-")[1] + ".html");
+    }
+
+    @Test
+    void addAppointment_overlappingSamePatient_expectRejected() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Patient other = new Patient("S7654321B", "Jane Tan", "1985-05-05",
+                "F", "9 Side Rd", "91234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient, other)), new ArrayList<>());
+        LocalDateTime nine = LocalDateTime.of(2025, 4, 1, 9, 0);
+        manager.addAppointment(new Appointment("S1234567A", nine, "Scan", Duration.ofMinutes(60)));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                manager.addAppointment(new Appointment("S1234567A", nine.plusMinutes(45), "Review")));
+        manager.addAppointment(new Appointment("S1234567A", nine.plusMinutes(60), "Review"));
+        manager.addAppointment(new Appointment("S7654321B", nine.plusMinutes(15), "Checkup"));
+        assertEquals(3, manager.getAppointmentCount());
+
+        manager.deleteAppointment(manager.getAppointments().get(0).getId());
+        manager.addAppointment(new Appointment("S1234567A", nine.plusMinutes(15), "Checkup"));
+        assertEquals(3, manager.getAppointmentCount());
+    }
+
+    @Test
+    void findConflicts_loadedOverlaps_expectEachOverlappingPairOnce() {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        LocalDateTime nine = LocalDateTime.of(2025, 4, 1, 9, 0);
+        Appointment long1 = new Appointment("S1234567A", nine, "Surgery", Duration.ofMinutes(120));
+        Appointment inside = new Appointment("S1234567A", nine.plusMinutes(30), "Consult");
+        Appointment after = new Appointment("S1234567A", nine.plusMinutes(120), "Recovery");
+        Appointment otherPatient = new Appointment("S7654321B", nine, "Checkup");
+        Appointment sameStart = new Appointment("S7654321B", nine, "X-ray");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)),
+                new ArrayList<>(List.of(after, inside, long1, otherPatient, sameStart)));
+
+        List<AppointmentConflict> conflicts = manager.findConflicts();
+
+        assertEquals(2, conflicts.size());
+        assertSame(otherPatient, conflicts.get(0).getFirst());
+        assertSame(sameStart, conflicts.get(0).getSecond());
+        assertEquals("patient S7654321B", conflicts.get(0).getSharedBy());
+        assertSame(long1, conflicts.get(1).getFirst());
+        assertSame(inside, conflicts.get(1).getSecond());
+    }
+
+    @Test
+    void findFreeSlots_bookingsAddedAndDeleted_expectSlotsFollowSchedule() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)), new ArrayList<>());
+        LocalDate day = LocalDate.of(2025, 4, 1);
+        SlotRequest request = new SlotRequest("S1234567A", day.atTime(9, 0), Duration.ofMinutes(45), 2);
+        Appointment first = new Appointment("S1234567A", day.atTime(9, 0), "Scan", Duration.ofMinutes(60));
+        manager.addAppointment(first);
+        manager.addAppointment(new Appointment("S1234567A", day.atTime(10, 30), "Review"));
+
+        assertEquals(List.of(day.atTime(11, 0), day.atTime(11, 45)), manager.findFreeSlots(request));
+        assertThrows(IllegalArgumentException.class, () -> manager.addAppointment(
+                new Appointment("S1234567A", day.atTime(10, 15), "Checkup", Duration.ofMinutes(45))));
+        manager.addAppointment(new Appointment("S1234567A", day.atTime(11, 0), "Checkup", Duration.ofMinutes(45)));
+
+        manager.deleteAppointment(first.getId());
+
+        assertEquals(List.of(day.atTime(9, 0), day.atTime(9, 45)), manager.findFreeSlots(request));
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlots(
+                new SlotRequest("S0000000Z", day.atTime(9, 0), Duration.ofMinutes(30), 1)));
+    }
+
+    @Test
+    void addAppointment_doctorsAndRooms_expectEachResourceBookedOnce() throws Exception {
+        Patient john = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Patient jane = new Patient("S7654321B", "Jane Tan", "1985-05-05",
+                "F", "9 Side Rd", "91234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(john, jane)), new ArrayList<>());
+        LocalDate day = LocalDate.of(2025, 4, 1);
+        Duration hour = Duration.ofMinutes(60);
+        manager.addAppointment(new Appointment("S1234567A", day.atTime(9, 0), "Consult", hour, "Lim", "Room 1"));
+
+        assertThrows(IllegalArgumentException.class, () -> manager.addAppointment(
+                new Appointment("S7654321B", day.atTime(9, 30), "Consult", hour, "lim", "Room 2")));
+        assertThrows(IllegalArgumentException.class, () -> manager.addAppointment(
+                new Appointment("S7654321B", day.atTime(9, 30), "Scan", hour, "Ong", "ROOM 1")));
+        manager.addAppointment(new Appointment("S7654321B", day.atTime(9, 30), "Consult", hour, "Ong", "Room 2"));
+        manager.addAppointment(new Appointment("S7654321B", day.atTime(14, 0), "Review", hour, "Lim", null));
+
+        assertEquals(List.of("Consult", "Review"), manager.getBookings(Resource.DOCTOR, "LIM", day, day).stream()
+                .map(Appointment::getDescription).collect(Collectors.toList()));
+        assertEquals(Duration.ofMinutes(120), manager.getBookedTime(Resource.DOCTOR, "Lim", day, day.plusDays(6)));
+        assertEquals(Duration.ZERO, manager.getBookedTime(Resource.ROOM, "Room 9", day, day));
+        assertEquals(List.of(day.atTime(10, 30), day.atTime(11, 0)), manager.findFreeSlots(
+                new SlotRequest("S1234567A", day.atTime(9, 0), Duration.ofMinutes(30), 2, "Ong", "Room 1")));
+        assertTrue(manager.findConflicts().isEmpty());
+    }
+
+    @Test
+    void findConflicts_loadedDoubleBookedDoctor_expectConflictNamingDoctor() {
+        LocalDate day = LocalDate.of(2025, 4, 1);
+        Appointment first = new Appointment("S1234567A", day.atTime(9, 0), "Consult",
+                Duration.ofMinutes(30), "Lim", "Room 1");
+        Appointment second = new Appointment("S7654321B", day.atTime(9, 15), "Consult",
+                Duration.ofMinutes(30), "Lim", "Room 2");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>(List.of(first, second)));
+
+        List<AppointmentConflict> conflicts = manager.findConflicts();
+
+        assertEquals(1, conflicts.size());
+        assertEquals("doctor Lim", conflicts.get(0).getSharedBy());
+        assertSame(first, conflicts.get(0).getFirst());
+    }
+
+    @Test
+    void addRecurringAppointment_weeklyForTenYears_expectWindowExpandedAndClashesRejected() throws Exception {
+        Patient john = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Patient jane = new Patient("S7654321B", "Jane Tan", "1985-05-05",
+                "F", "9 Side Rd", "91234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(john, jane)), new ArrayList<>());
+        RecurringAppointment series = new RecurringAppointment("S1234567A", LocalDateTime.of(2025, 4, 1, 9, 0),
+                "Physio", Duration.ofMinutes(60), "Lim", null, RecurringAppointment.Frequency.WEEKLY, 1, 520);
+        manager.addRecurringAppointment(series);
+        LocalDate day = LocalDate.of(2030, 1, 8);
+        AppointmentFilter january = new AppointmentFilter();
+        january.setDateRange(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31));
+
+        List<Appointment> visits = manager.getRecurringOccurrences(january);
+
+        assertEquals(5, visits.size());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), visits.get(0).getDateTime());
+        assertEquals(series.getId() + "-249", visits.get(0).getId());
+        assertThrows(IllegalArgumentException.class, () -> manager.addAppointment(
+                new Appointment("S7654321B", day.atTime(9, 30), "Consult", Duration.ofMinutes(30), "Lim", null)));
+        assertThrows(IllegalArgumentException.class, () -> manager.addRecurringAppointment(
+                new RecurringAppointment("S7654321B", LocalDateTime.of(2025, 4, 4, 9, 0), "Consult",
+                        Duration.ofMinutes(30), "Lim", null, RecurringAppointment.Frequency.DAILY, 1, 10)));
+        assertEquals(List.of(day.atTime(10, 0)), manager.findFreeSlots(
+                new SlotRequest("S1234567A", day.atTime(9, 0), Duration.ofMinutes(30), 1)));
+        assertEquals(Duration.ofMinutes(60), manager.getBookedTime(Resource.DOCTOR, "Lim", day, day));
+        assertEquals(1, manager.getBookings(Resource.PATIENT, "S1234567A", day, day).size());
+
+        assertSame(series, manager.deleteRecurringAppointment(series.getId()));
+        assertTrue(manager.getRecurringOccurrences(january).isEmpty());
+        manager.addAppointment(
+                new Appointment("S7654321B", day.atTime(9, 30), "Consult", Duration.ofMinutes(30), "Lim", null));
+    }
+
+    @Test
+    void deletePatient_recurringAppointment_expectSeriesDeletedAndRestoredOnRollback() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)), new ArrayList<>());
+        manager.addRecurringAppointment(new RecurringAppointment("S1234567A", LocalDateTime.of(2025, 4, 1, 9, 0),
+                "Physio", Duration.ofMinutes(30), null, "Gym", RecurringAppointment.Frequency.MONTHLY, 1, 12));
+
+        manager.beginTransaction();
+        manager.deletePatient("S1234567A");
+        assertTrue(manager.getRecurringAppointments().isEmpty());
+        assertTrue(manager.getBookings(Resource.ROOM, "Gym", LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 1))
+                .isEmpty());
+        manager.rollbackTransaction();
+
+        assertEquals(1, manager.getRecurringAppointments().size());
+        assertEquals(1, manager.getBookings(Resource.ROOM, "Gym", LocalDate.of(2025, 5, 1),
+                LocalDate.of(2025, 5, 1)).size());
+    }
+
+    @Test
+    void savePatients_unreadableStoredPatient_expectLineKept() throws Exception {
+        String unreadable = "S7654321B|Jane Tan|31/02/1985|F|1 Side Rd|91234567|[]";
+        Files.createDirectories(TEST_FILE_PATH.getParent());
+        Files.write(TEST_FILE_PATH, List.of("S1234567A|John Doe|1990-01-01|M|123 Main St|81234567|[]", unreadable));
+        ManagementSystem manager = new ManagementSystem(Storage.loadPatients(), new ArrayList<>());
+
+        manager.addPatient(new Patient("S2345678C", "Ann Lee", "2000-05-05", "F", "2 Hill Rd", "82345678",
+                new ArrayList<>()));
+
+        assertEquals(List.of(unreadable), Storage.getUnreadablePatientLines());
+        assertEquals(2, manager.getPatients().size());
+        List<String> lines = Files.readAllLines(TEST_FILE_PATH);
+        assertEquals(3, lines.size());
+        assertTrue(lines.contains(unreadable), "A patient that could not be read was lost on save");
+    }
+
+    @Test
+    void setReminderScheduler_appointmentChanges_expectWheelKeptInStep() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Appointment loaded = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 2, 9, 0), "Review");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)),
+                new ArrayList<>(List.of(loaded)));
+        LocalDateTime[] now = {LocalDateTime.of(2025, 4, 1, 8, 0)};
+        ReminderScheduler reminders = new ReminderScheduler(Duration.ofHours(24), () -> now[0]);
+        manager.setReminderScheduler(reminders);
+        Appointment marked = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 2, 10, 0), "Scan");
+        Appointment deleted = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 2, 11, 0), "Consult");
+        Appointment kept = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 5, 9, 0), "Physio");
+        manager.addAppointment(marked);
+        manager.addAppointment(deleted);
+        manager.addAppointment(kept);
+        manager.markAppointment(marked.getId());
+        manager.deleteAppointment(deleted.getId());
+
+        assertEquals(2, reminders.getPendingCount());
+        now[0] = LocalDateTime.of(2025, 4, 1, 12, 0);
+        assertEquals(List.of(loaded), reminders.sendDue());
+        manager.unmarkAppointment(marked.getId());
+        manager.editPatient("S1234567A", null, null, "F", null, null);
+        now[0] = now[0].plusMinutes(1);
+        assertEquals(List.of(marked), reminders.sendDue());
+        assertTrue(reminders.sendDue().isEmpty(), "An appointment should only be reminded of once");
+
+        manager.beginTransaction();
+        manager.deleteAppointment(kept.getId());
+        assertFalse(reminders.isPending(kept));
+        manager.rollbackTransaction();
+        assertTrue(reminders.isPending(kept));
+    }
+
+    @Test
+    void setReminderScheduler_recurringAppointment_expectEachVisitRemindedInTurn() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)), new ArrayList<>());
+        LocalDateTime[] now = {LocalDateTime.of(2025, 4, 1, 8, 0)};
+        ReminderScheduler reminders = new ReminderScheduler(Duration.ofHours(24), () -> now[0]);
+        manager.setReminderScheduler(reminders);
+        RecurringAppointment series = new RecurringAppointment("S1234567A", LocalDateTime.of(2025, 4, 2, 9, 0),
+                "Physio", Appointment.DEFAULT_DURATION, null, null, RecurringAppointment.Frequency.WEEKLY, 1, 3);
+        manager.addRecurringAppointment(series);
+
+        assertEquals(1, reminders.getPendingCount());
+        now[0] = LocalDateTime.of(2025, 4, 1, 9, 0);
+        List<Appointment> sent = reminders.sendDue();
+        assertEquals(1, sent.size());
+        assertEquals(series.getId() + "-1", sent.get(0).getId());
+        assertEquals(1, reminders.getPendingCount(), "The next visit should wait in its place");
+        now[0] = LocalDateTime.of(2025, 4, 8, 9, 0);
+        assertEquals(series.getId() + "-2", reminders.sendDue().get(0).getId());
+
+        manager.deleteRecurringAppointment(series.getId());
+        assertEquals(0, reminders.getPendingCount());
+    }
+
+    @Test
+    void setReminderScheduler_reminderDueBeforeStart_expectNotSentAgain() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        Appointment remindedBefore = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 2, 7, 0), "Review");
+        Appointment upcoming = new Appointment("S1234567A", LocalDateTime.of(2025, 4, 2, 9, 0), "Scan");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)),
+                new ArrayList<>(List.of(remindedBefore, upcoming)));
+        LocalDateTime[] now = {LocalDateTime.of(2025, 4, 1, 8, 0)};
+        ReminderScheduler reminders = new ReminderScheduler(Duration.ofHours(24), () -> now[0]);
+        manager.setReminderScheduler(reminders);
+
+        assertFalse(reminders.isPending(remindedBefore));
+        assertTrue(reminders.isPending(upcoming));
+        manager.markAppointment(remindedBefore.getId());
+        manager.unmarkAppointment(remindedBefore.getId());
+        assertFalse(reminders.isPending(remindedBefore), "A reminder due before the start counts as sent");
+    }
+
+    @Test
+    void getAppointmentsOn_appointmentChanges_expectDayInTimeOrder() throws Exception {
+        Patient patient = new Patient("S1234567A", "John Doe", "1990-01-01",
+                "M", "123 Main St", "81234567", new ArrayList<>());
+        LocalDate day = LocalDate.of(2025, 4, 1);
+        Appointment loaded = new Appointment("S1234567A", day.atTime(14, 0), "Review");
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(List.of(patient)),
+                new ArrayList<>(List.of(loaded)));
+        Appointment morning = new Appointment("S1234567A", day.atTime(9, 0), "Scan");
+        Appointment noon = new Appointment("S1234567A", day.atTime(12, 0), "Consult");
+        manager.addAppointment(noon);
+        manager.addAppointment(morning);
+        manager.addAppointment(new Appointment("S1234567A", day.plusDays(1).atTime(9, 0), "Checkup"));
+        manager.markAppointment(noon.getId());
+
+        assertEquals(List.of(morning, noon, loaded), manager.getAppointmentsOn(day));
+
+        manager.beginTransaction();
+        manager.deleteAppointment(noon.getId());
+        assertEquals(List.of(morning, loaded), manager.getAppointmentsOn(day));
+        manager.rollbackTransaction();
+        assertEquals(List.of(morning, noon, loaded), manager.getAppointmentsOn(day));
+
+        manager.addRecurringAppointment(new RecurringAppointment("S1234567A", day.minusDays(7).atTime(10, 0),
+                "Physio", Duration.ofMinutes(30), null, null, RecurringAppointment.Frequency.WEEKLY, 1, 4));
+        assertEquals(List.of("Scan", "Physio", "Consult", "Review"), manager.getAppointmentsOn(day).stream()
+                .map(Appointment::getDescription).collect(Collectors.toList()));
+        assertTrue(manager.getAppointmentsOn(day.minusDays(1)).isEmpty());
+    }
 }
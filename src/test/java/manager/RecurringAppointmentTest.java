@@ -0,0 +1,86 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecurringAppointmentTest {
+
+    @Test
+    void occurrencesBetween_monthlyFromMonthEnd_expectLastDayOfShorterMonths() {
+        RecurringAppointment series = new RecurringAppointment("R1", "S1234567D", LocalDateTime.of(2025, 1, 31, 10, 0),
+                "Review", Duration.ofMinutes(30), null, null, RecurringAppointment.Frequency.MONTHLY, 1, 4);
+
+        List<Appointment> visits = series.occurrencesBetween(LocalDateTime.of(2025, 2, 1, 0, 0),
+                LocalDateTime.of(2025, 12, 1, 0, 0));
+
+        assertEquals(List.of(LocalDateTime.of(2025, 2, 28, 10, 0), LocalDateTime.of(2025, 3, 31, 10, 0),
+                LocalDateTime.of(2025, 4, 30, 10, 0)), startsOf(visits));
+        assertEquals("R1-2", visits.get(0).getId());
+    }
+
+    @Test
+    void occurrencesBetween_randomWindows_expectSameAsSteppingThroughSeries() {
+        Random random = new Random(7);
+        for (RecurringAppointment.Frequency frequency : RecurringAppointment.Frequency.values()) {
+            RecurringAppointment series = new RecurringAppointment("R1", "S1234567D",
+                    LocalDateTime.of(2025, 1, 31, 23, 30), "Physio", Duration.ofMinutes(90), null, null,
+                    frequency, 3, 200);
+            List<Appointment> all = series.occurrencesBetween(LocalDateTime.of(2000, 1, 1, 0, 0),
+                    LocalDateTime.of(2100, 1, 1, 0, 0));
+            assertEquals(200, all.size());
+            for (int i = 0; i < 500; i++) {
+                LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(60 * 24 * 2000));
+                LocalDateTime to = from.plusMinutes(1 + random.nextInt(60 * 24 * 120));
+                List<Appointment> expected = new ArrayList<>();
+                for (Appointment visit : all) {
+                    if (visit.getDateTime().isBefore(to) && visit.getEndDateTime().isAfter(from)) {
+                        expected.add(visit);
+                    }
+                }
+                assertEquals(startsOf(expected), startsOf(series.occurrencesBetween(from, to)));
+            }
+        }
+    }
+
+    @Test
+    void fromFileFormat_savedSeries_expectRoundTrip() {
+        RecurringAppointment series = new RecurringAppointment("R5", "S1234567D", LocalDateTime.of(2025, 4, 1, 9, 0),
+                "Physio | knee", Duration.ofMinutes(45), "Lim", null, RecurringAppointment.Frequency.WEEKLY, 2, 12);
+
+        RecurringAppointment loaded = RecurringAppointment.fromFileFormat(series.toFileFormat());
+
+        assertEquals(series.toFileFormat(), loaded.toFileFormat());
+        assertEquals(series.toString(), loaded.toString());
+        assertEquals(LocalDateTime.of(2025, 9, 2, 9, 0), loaded.getLastStart());
+        assertNull(RecurringAppointment.fromFileFormat("R6|S1234567D|2025-04-01 9:00 AM|WEEKLY|0|12|45|||Physio"));
+    }
+
+    @Test
+    void countUntil_weekly_expectVisitsOnOrBeforeLastDate() {
+        LocalDateTime start = LocalDateTime.of(2025, 4, 1, 9, 0);
+
+        assertEquals(5, RecurringAppointment.countUntil(start, RecurringAppointment.Frequency.WEEKLY, 1,
+                LocalDate.of(2025, 4, 29)));
+        assertEquals(0, RecurringAppointment.countUntil(start, RecurringAppointment.Frequency.DAILY, 1,
+                LocalDate.of(2025, 3, 31)));
+        assertEquals(RecurringAppointment.MAX_OCCURRENCES + 1, RecurringAppointment.countUntil(start,
+                RecurringAppointment.Frequency.DAILY, 1, LocalDate.of(2035, 1, 1)));
+    }
+
+    private static List<LocalDateTime> startsOf(List<Appointment> visits) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (Appointment visit : visits) {
+            starts.add(visit.getDateTime());
+        }
+        return starts;
+    }
+}
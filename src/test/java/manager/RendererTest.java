@@ -0,0 +1,76 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RendererTest {
+
+    @Test
+    void appendPatientListView_manyAppointments_expectSameTextAsConcatenation() {
+        Patient patient = patientWith(3);
+
+        StringBuilder rendered = new StringBuilder();
+        Renderer.appendPatientListView(rendered, patient);
+
+        assertEquals(concatenatedListView(patient), rendered.toString());
+        assertEquals(concatenatedListView(patient), patient.toStringForListView());
+    }
+
+    @Test
+    void appendAppointment_doneAppointment_expectLegacyFormat() {
+        Appointment appointment = new Appointment("A7", "S1234567D", LocalDateTime.of(2025, 4, 1, 14, 30), "Scan");
+        appointment.markAsDone();
+
+        assertEquals("[A7][X] - S1234567D - " + appointment.getDateTime().format(Appointment.OUTPUT_FORMAT)
+                + " - Scan", appointment.toString());
+    }
+
+    private static Patient patientWith(int appointmentCount) {
+        List<String> history = new ArrayList<>();
+        for (int i = 0; i < appointmentCount; i++) {
+            history.add("Condition " + i);
+        }
+        Patient patient = new Patient("S1234567D", "Billy", "1990-10-01", "M", "124 High St", "81234567", history);
+        for (int i = 0; i < appointmentCount; i++) {
+            patient.addAppointment(new Appointment("A" + i, "S1234567D",
+                    LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i), "Checkup " + i));
+        }
+        return patient;
+    }
+
+    // The list view as Patient built it before the renderer, with += in loops
+    private static String concatenatedListView(Patient patient) {
+        String result = String.format(
+                "Patient NRIC: %s\n   "
+                        + "Name: %s\n   "
+                        + "Date of Birth: %s\n   "
+                        + "Gender: %s\n   "
+                        + "Address: %s\n   "
+                        + "Contact: %s",
+                patient.getId(), patient.getName(), patient.getDob(), patient.getGender(), patient.getAddress(),
+                patient.getContactInfo());
+        if (patient.getMedicalHistory().isEmpty()) {
+            result += "\n   Medical History: None";
+        } else {
+            result += "\n   Medical History:";
+            for (String h : patient.getMedicalHistory()) {
+                result += "\n   - " + h;
+            }
+        }
+        if (patient.getAppointments().isEmpty()) {
+            result += "\n   Appointments: None";
+        } else {
+            result += "\n   Appointments:";
+            for (Appointment appt : patient.getAppointments()) {
+                result += String.format("\n   - [%s][%s]: %s (%s)", appt.getId(), appt.getStatusIcon(),
+                        appt.getDateTime().format(Appointment.OUTPUT_FORMAT), appt.getDescription());
+            }
+        }
+        return result;
+    }
+}
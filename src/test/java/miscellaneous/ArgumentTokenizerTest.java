@@ -0,0 +1,33 @@
+package miscellaneous;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArgumentTokenizerTest {
+
+    @Test
+    void tokenize_mixedCaseAndOrder_expectTrimmedValuesByPrefix() {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize("IC/S1234567D  n/John Doe dob/1990-01-01 "
+                + "g/M p/81234567 a/12 Dos/Road h/Asthma, Flu");
+
+        assertEquals("S1234567D", arguments.get("ic/"));
+        assertEquals("John Doe", arguments.get("n/"));
+        assertEquals("12 Dos/Road", arguments.get("a/"));
+        assertEquals("Asthma, Flu", arguments.get("h/"));
+    }
+
+    @Test
+    void tokenize_repeatedAndBlankPrefixes_expectFirstValueUntilNextDifferentPrefix() {
+        Map<String, String> arguments = ArgumentTokenizer.tokenize("n/John n/Doe ic/ dsc/Check-up at 3pm/4pm");
+
+        assertEquals("John n/Doe", arguments.get("n/"));
+        assertNull(arguments.get("ic/"));
+        assertFalse(arguments.containsKey("ic/"));
+        assertEquals("Check-up at 3pm/4pm", arguments.get("dsc/"));
+    }
+}
@@ -0,0 +1,93 @@
+package miscellaneous;
+
+import command.Command;
+import command.CommandPlugin;
+import command.ExitCommand;
+import exception.UnknownCommandException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class CommandRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void create_registeredWordInAnyCase_expectCommandFromFactory() throws Exception {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("Quit", input -> new ExitCommand());
+
+        assertInstanceOf(ExitCommand.class, registry.create("QUIT", "QUIT now"));
+        assertThrows(UnknownCommandException.class, () -> registry.create("leave", "leave"));
+    }
+
+    @Test
+    void register_wordAlreadyTaken_expectException() {
+        CommandRegistry registry = Parser.getCommandRegistry();
+
+        assertTrue(registry.isRegistered("add-patient"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("ADD-PATIENT", input -> null));
+    }
+
+    @Test
+    void loadPlugins_serviceFileOnClassPath_expectPluginCommandsRegistered() throws Exception {
+        Path services = Files.createDirectories(tempDir.resolve("META-INF").resolve("services"));
+        Files.writeString(services.resolve(CommandPlugin.class.getName()), EchoPlugin.class.getName() + "\n");
+        CommandRegistry registry = new CommandRegistry();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()},
+                getClass().getClassLoader())) {
+            assertEquals(1, registry.loadPlugins(loader, problem -> fail(problem)));
+        }
+        Command command = registry.create("echo", "echo hello");
+        assertInstanceOf(ExitCommand.class, command);
+    }
+
+    @Test
+    void loadPlugins_clashingPlugin_expectReportedAndOthersLoaded() throws Exception {
+        Path services = Files.createDirectories(tempDir.resolve("META-INF").resolve("services"));
+        Files.writeString(services.resolve(CommandPlugin.class.getName()),
+                ClashingPlugin.class.getName() + "\n" + EchoPlugin.class.getName() + "\n");
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("bye", input -> new ExitCommand());
+        List<String> problems = new ArrayList<>();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()},
+                getClass().getClassLoader())) {
+            assertEquals(1, registry.loadPlugins(loader, problems::add));
+        }
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).contains("'bye'"), problems.get(0));
+        assertFalse(registry.isRegistered("wave"), "A clashing plugin should register none of its commands");
+        assertTrue(registry.isRegistered("echo"));
+    }
+
+    public static class ClashingPlugin implements CommandPlugin {
+        @Override
+        public void registerCommands(CommandRegistry registry) {
+            registry.register("wave", input -> new ExitCommand());
+            registry.register("bye", input -> new ExitCommand());
+        }
+    }
+
+    public static class EchoPlugin implements CommandPlugin {
+        @Override
+        public void registerCommands(CommandRegistry registry) {
+            registry.register("echo", input -> new ExitCommand());
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package miscellaneous;
 
 import command.AddAppointmentCommand;
+import command.AddRecurringAppointmentCommand;
 import command.Command;
 import command.DeleteAppointmentCommand;
 import command.ListAppointmentCommand;
+import command.ListRecurringAppointmentCommand;
+import command.NextSlotCommand;
+import command.UtilisationCommand;
+import command.ViewDayCommand;
 import exception.InvalidInputFormatException;
 import exception.UnknownCommandException;
 import manager.Appointment;
+import manager.Patient;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.Test;
@@ -34,6 +42,114 @@ class ParserTest {
         assertEquals("Checkup", appointment.getDescription());
     }
 
+    @Test
+    void parseAddAppointment_duration_expectDurationOrDefault() throws Exception {
+        Appointment withDuration = Parser.parseAddAppointment(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Scan dur/45");
+        Appointment withoutDuration = Parser.parseAddAppointment(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Checkup");
+
+        assertEquals(Duration.ofMinutes(45), withDuration.getDuration());
+        assertEquals("Scan", withDuration.getDescription());
+        assertEquals(Appointment.DEFAULT_DURATION, withoutDuration.getDuration());
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parseAddAppointment(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Scan dur/0"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parseAddAppointment(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Scan dur/half"));
+    }
+
+    @Test
+    void parseLoadAppointment_withAndWithoutDuration_expectDurationRead() {
+        Appointment saved = Parser.parseLoadAppointment("101|false|S1234567D|2025-03-20 2:30 PM|Scan|45");
+        Appointment older = Parser.parseLoadAppointment("102|true|S1234567D|2025-03-21 2:30 PM|Checkup");
+
+        assertEquals(Duration.ofMinutes(45), saved.getDuration());
+        assertEquals(Appointment.DEFAULT_DURATION, older.getDuration());
+        assertEquals("102|true|S1234567D|2025-03-21 2:30 PM|Checkup|30", older.toFileFormat());
+    }
+
+    @Test
+    void parseLoadAppointment_pipeInDescription_expectFieldsReadFromEnd() {
+        Appointment booked = Parser.parseLoadAppointment("104|false|S1234567D|2025-03-22 2:30 PM|Scan|CT|45|Lim|");
+        Appointment older = Parser.parseLoadAppointment("105|false|S1234567D|2025-03-22 4:30 PM|Scan|CT");
+
+        assertEquals("Scan|CT", booked.getDescription());
+        assertEquals(Duration.ofMinutes(45), booked.getDuration());
+        assertEquals("Lim", booked.getDoctor());
+        assertEquals("Scan|CT", older.getDescription());
+        assertEquals(Appointment.DEFAULT_DURATION, older.getDuration());
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Scan|CT"));
+    }
+
+    @Test
+    void parseListPatient_ageAndBirthYearLimits_expectOutOfRangeRejected() throws Exception {
+        int thisYear = LocalDate.now().getYear();
+        assertNotNull(Parser.parseListPatient("list-patient age/0-150"));
+        assertNotNull(Parser.parseListPatient("list-patient yob/1900"));
+        assertNotNull(Parser.parseListPatient("list-patient yob/" + thisYear));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parseListPatient("list-patient age/0-151"));
+        assertThrows(InvalidInputFormatException.class,
+                () -> Parser.parseListPatient("list-patient age/0-2147483647"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parseListPatient("list-patient yob/1899"));
+        assertThrows(InvalidInputFormatException.class,
+                () -> Parser.parseListPatient("list-patient yob/" + (thisYear + 1)));
+        assertThrows(InvalidInputFormatException.class,
+                () -> Parser.parseListPatient("list-patient yob/2000000000"));
+    }
+
+    @Test
+    void parse_nextSlot_expectCommandOrFormatError() throws Exception {
+        assertInstanceOf(NextSlotCommand.class, Parser.parse("next-slot ic/S1234567D dt/2025-03-20 dur/45 limit/3"));
+        assertInstanceOf(NextSlotCommand.class, Parser.parse("next-slot ic/S1234567D"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("next-slot dt/2025-03-20"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("next-slot ic/S1234567D t/0900"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("next-slot ic/S1234567D limit/0"));
+    }
+
+    @Test
+    void parse_recurringCommands_expectCommandOrFormatError() throws Exception {
+        assertInstanceOf(AddRecurringAppointmentCommand.class, Parser.parse(
+                "add-recurring ic/S1234567D dt/2025-04-01 t/0900 dsc/Physio rep/weekly times/12 every/2 doc/Lim"));
+        assertInstanceOf(AddRecurringAppointmentCommand.class, Parser.parse(
+                "add-recurring ic/S1234567D dt/2025-04-01 t/0900 dsc/Physio rep/MONTHLY until/2026-04-01"));
+        assertInstanceOf(ListRecurringAppointmentCommand.class, Parser.parse("list-recurring ic/S1234567D"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(
+                "add-recurring ic/S1234567D dt/2025-04-01 t/0900 dsc/Physio rep/weekly"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(
+                "add-recurring ic/S1234567D dt/2025-04-01 t/0900 dsc/Physio rep/yearly times/3"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(
+                "add-recurring ic/S1234567D dt/2025-04-01 t/0900 dsc/Physio rep/daily until/2035-01-01"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("delete-recurring A100"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(
+                "list-recurring from/2025-04-01 to/2025-03-01"));
+    }
+
+    @Test
+    void parse_dayCommands_expectViewDayCommandOrFormatError() throws Exception {
+        assertInstanceOf(ViewDayCommand.class, Parser.parse("today"));
+        assertInstanceOf(ViewDayCommand.class, Parser.parse("day 2025-04-01"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("day 01-04-2025"));
+    }
+
+    @Test
+    void parseLoadAppointment_doctorAndRoom_expectRoundTrip() throws Exception {
+        Appointment booked = Parser.parseAddAppointment(
+                "add-appointment ic/S1234567D dt/2025-03-20 t/1430 dsc/Scan doc/Lim rm/Room 2");
+        Appointment loaded = Parser.parseLoadAppointment(booked.toFileFormat());
+        Appointment roomOnly = Parser.parseLoadAppointment("103|false|S1234567D|2025-03-21 2:30 PM|X-ray|30||Room 2");
+
+        assertEquals("Lim", loaded.getDoctor());
+        assertEquals("Room 2", loaded.getRoom());
+        assertEquals(null, roomOnly.getDoctor());
+        assertEquals("Room 2", roomOnly.getRoom());
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("view-schedule dt/2025-03-20"));
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse("utilisation doc/Lim rm/Room 2"));
+        assertThrows(InvalidInputFormatException.class,
+                () -> Parser.parse("utilisation doc/Lim from/2025-03-20 to/2025-03-01"));
+        assertInstanceOf(UtilisationCommand.class, Parser.parse("utilisation doc/Lim from/2025-03-01 to/2025-03-31"));
+    }
+
     @Test
     void parseAddAppointment_invalidFormat_expectException() {
         String input = "add-appointment ic/S1234567D dt/2025-03-19 t/1200";
@@ -96,6 +212,21 @@ class ParserTest {
         assertThrows(InvalidInputFormatException.class, () -> Parser.parseDeleteAppointment(input));
     }
 
+    @Test
+    void parse_addPatientInvalidDob_expectException() {
+        String input = "add-patient n/John Doe ic/S1234567D dob/1999-13-40 g/M p/98765432 a/123 Main Street";
+
+        assertThrows(InvalidInputFormatException.class, () -> Parser.parse(input));
+    }
+
+    @Test
+    void parseLoadPatient_legacyDobFormat_expectDobConverted() {
+        Patient patient = Parser.parseLoadPatient("S1234567D|John Doe|12-12-1999|M|123 Main Street|98765432|[]");
+
+        assertNotNull(patient);
+        assertEquals(LocalDate.of(1999, 12, 12), patient.getDob());
+    }
+
     @Test
     void parseViewHistory_validNric() throws InvalidInputFormatException {
         String[] result = Parser.parseViewHistory("view-history S1234567D");
@@ -117,6 +248,13 @@ class ParserTest {
         assertEquals("S1234567A", result[1]);
     }
 
+    @Test
+    void parseViewHistory_soundsLikePrefix() throws InvalidInputFormatException {
+        String[] result = Parser.parseViewHistory("view-history sl/Jon Smyth");
+        assertEquals("sl", result[0]);
+        assertEquals("Jon Smyth", result[1]);
+    }
+
     @Test
     void parseViewHistory_invalidInput_expectException() {
         assertThrows(InvalidInputFormatException.class, () ->
@@ -0,0 +1,40 @@
+package miscellaneous;
+
+import manager.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UiTest {
+
+    @Test
+    void showPatientList_bufferedOutput_expectNothingWrittenUntilFlush() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Ui ui = new Ui(new ByteArrayInputStream(new byte[0]), out);
+
+        ui.showPatientList(List.of(new Patient("S1234567D", "Billy", "1990-10-01",
+                "M", "124 High St", "81234567", new ArrayList<>())));
+        assertEquals(0, out.size(), "Output should stay buffered until the command finishes");
+
+        ui.flush();
+        assertTrue(out.toString().contains("Billy"), out.toString());
+    }
+
+    @Test
+    void readCommand_prompt_expectPromptFlushedBeforeReading() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Ui ui = new Ui(new ByteArrayInputStream("list-patient\n".getBytes()), out);
+
+        ui.showWelcome();
+        String command = ui.readCommand();
+
+        assertEquals("list-patient", command);
+        assertTrue(out.toString().contains("Welcome to ClinicEase!") && out.toString().endsWith("> "));
+    }
+}
@@ -0,0 +1,75 @@
+package server;
+
+import manager.Appointment;
+import manager.ManagementSystem;
+import manager.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import storage.Storage;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiServerTest {
+
+    @TempDir
+    Path tempDir;
+    private ApiServer api;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        new Storage(tempDir.toString());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < 200; i++) {
+            String nric = String.format("S%07dA", i);
+            manager.addPatient(new Patient(nric, "Patient \"" + i + "\"", "1980-01-01",
+                    i % 2 == 0 ? "M" : "F", "1 Main St", "81234567", new ArrayList<>()));
+            manager.addAppointment(new Appointment(nric, LocalDateTime.of(2025, 4, 1 + i % 28, 9, 0), "Checkup"));
+        }
+        api = new ApiServer(manager, 0);
+        api.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void getPatient_knownAndUnknownNric_expectObjectOr404() throws Exception {
+        HttpResponse<String> found = get("/patients/s0000007a");
+        HttpResponse<String> missing = get("/patients/S9999999Z");
+
+        assertEquals(200, found.statusCode());
+        assertTrue(found.body().startsWith("{\"nric\":\"S0000007A\",\"name\":\"Patient \\\"7\\\"\""), found.body());
+        assertEquals(404, missing.statusCode());
+    }
+
+    @Test
+    void listAppointments_filtersAndPaging_expectStreamedArray() throws Exception {
+        HttpResponse<String> response = get("/appointments?dt=2025-04-01&limit=3");
+        HttpResponse<String> invalid = get("/appointments?st=maybe");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(3, response.body().split("\"id\"").length - 1, response.body());
+        assertTrue(response.body().startsWith("[{") && response.body().endsWith("}]"), response.body());
+        assertEquals(400, invalid.statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + api.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,98 @@
+package server;
+
+import manager.ManagementSystem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import storage.Storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void serve_concurrentSessions_expectSharedDataAndSeparateOutput() throws Exception {
+        new Storage(tempDir.toString());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        ExecutorService clients = Executors.newFixedThreadPool(3);
+
+        try (CommandServer server = new CommandServer(manager, 0)) {
+            clients.execute(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            List<Future<String>> outputs = new ArrayList<>();
+            for (String name : List.of("Alice", "Bob")) {
+                String nric = name.equals("Alice") ? "S1234567A" : "S7654321B";
+                outputs.add(clients.submit(() -> converse(server.getPort(),
+                        "add-patient n/" + name + " ic/" + nric + " dob/1990-01-01 g/F p/91234567 a/1 Main St\n"
+                        + "bye\n")));
+            }
+            String aliceOutput = outputs.get(0).get();
+            String bobOutput = outputs.get(1).get();
+
+            assertTrue(aliceOutput.contains("Patient added successfully: Alice"), aliceOutput);
+            assertFalse(aliceOutput.contains("Bob"), aliceOutput);
+            assertTrue(bobOutput.contains("Patient added successfully: Bob"), bobOutput);
+            assertFalse(bobOutput.contains("Alice"), bobOutput);
+            assertEquals(2, manager.getPatients().size());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void serve_beginInSession_expectTransactionRefused() throws Exception {
+        new Storage(tempDir.toString());
+        ManagementSystem manager = new ManagementSystem(new ArrayList<>(), new ArrayList<>());
+        ExecutorService clients = Executors.newFixedThreadPool(1);
+
+        try (CommandServer server = new CommandServer(manager, 0)) {
+            clients.execute(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            String output = converse(server.getPort(), "begin\nbye\n");
+
+            assertTrue(output.contains("Transactions are not available"), output);
+            assertFalse(manager.isInTransaction());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static String converse(int port, String commands) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(commands.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}